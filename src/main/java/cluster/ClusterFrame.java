@@ -0,0 +1,81 @@
+package cluster;
+
+import lombok.Getter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A single frame of the internal binary cluster link.
+ * Every frame has the same layout: type code, room ID, player ID and an opaque payload,
+ * written length-prefixed so frames can be read back without any text parsing.
+ */
+@Getter
+public class ClusterFrame {
+    /**
+     * Largest payload accepted from the wire; room states and migrated rooms are far smaller.
+     */
+    public static final int MAX_PAYLOAD_BYTES = 8 * 1024 * 1024;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final FrameType type;
+    private final String roomId;
+    private final String playerId;
+    private final byte[] payload;
+
+    /**
+     * Constructs a frame.
+     *
+     * @param type     the frame type
+     * @param roomId   the room the frame refers to, may be {@code null}
+     * @param playerId the player the frame refers to, may be {@code null}
+     * @param payload  the frame payload, may be {@code null}
+     */
+    public ClusterFrame( FrameType type, String roomId, String playerId, byte[] payload ) {
+        this.type = type;
+        this.roomId = roomId == null ? "" : roomId;
+        this.playerId = playerId == null ? "" : playerId;
+        this.payload = payload == null ? EMPTY : payload;
+    }
+
+    /**
+     * Writes this frame to the given stream. The caller is responsible for flushing.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo( DataOutputStream out ) throws IOException {
+        out.writeByte( type.code( ) );
+        out.writeUTF( roomId );
+        out.writeUTF( playerId );
+        out.writeInt( payload.length );
+        out.write( payload );
+    }
+
+    /**
+     * Reads the next frame from the given stream.
+     *
+     * @param in the stream to read from
+     * @return the frame read
+     * @throws IOException if reading fails, the stream ends or the frame is malformed
+     */
+    public static ClusterFrame readFrom( DataInputStream in ) throws IOException {
+        FrameType type;
+        try {
+            type = FrameType.fromCode( in.readByte( ) );
+        } catch (IllegalArgumentException e) {
+            throw new IOException( e.getMessage( ), e );
+        }
+        String roomId = in.readUTF( );
+        String playerId = in.readUTF( );
+        int length = in.readInt( );
+        if ( length < 0 || length > MAX_PAYLOAD_BYTES ) {
+            throw new IOException( "Invalid cluster frame payload length: " + length );
+        }
+        byte[] payload = new byte[length];
+        in.readFully( payload );
+        return new ClusterFrame( type, roomId, playerId, payload );
+    }
+}
@@ -0,0 +1,405 @@
+package cluster;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Internal binary link between cluster nodes, built on plain TCP sockets.
+ * Each node listens for inbound connections and keeps one lazily opened outbound connection per peer.
+ * Frames are only ever sent on outbound connections and only ever read from inbound ones,
+ * so a pair of nodes talks over two sockets, one per direction.
+ * Sending never blocks the caller: frames go into a bounded per-peer queue drained by that peer's own writer
+ * thread, so a slow or unreachable peer cannot stall the game or deadlock two nodes on each other.
+ * Frames that could not be written are sent again once the peer is reachable, except room states, which the next
+ * state supersedes.
+ * Both ends of a connection prove that they know the shared secret with an HMAC over a fresh challenge from the other
+ * end, so the secret itself never goes over the wire.
+ */
+@Slf4j
+public class ClusterLink {
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final long RECONNECT_BACKOFF_MILLIS = 500;
+    private static final long POLL_MILLIS = 200;
+    /** Frames written between two flushes at most, which bounds the frames kept for re-sending. */
+    private static final int MAX_UNFLUSHED = 64;
+    /** How long a disconnected peer keeps trying to deliver its queued frames. */
+    private static final long DRAIN_TIMEOUT_MILLIS = 10_000;
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 5000;
+    private static final int NONCE_BYTES = 16;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    /** Labels keeping the connecting and the accepting proof apart, so one cannot be replayed as the other. */
+    private static final byte CONNECT_PROOF = 1;
+    private static final byte ACCEPT_PROOF = 2;
+
+    private final String localNodeId;
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom( );
+    private final BiConsumer< String, ClusterFrame > handler;
+    private final Map< String, Peer > peers = new ConcurrentHashMap<>( );
+    private ServerSocket serverSocket;
+    private volatile boolean running;
+
+    /**
+     * Constructs a link for the given node.
+     *
+     * @param localNodeId the ID of the local node, announced to peers in the HELLO frame
+     * @param secret      the shared cluster secret both ends of every connection must prove to know
+     * @param handler     callback receiving the sender's node ID and every inbound frame
+     */
+    public ClusterLink( String localNodeId, String secret, BiConsumer< String, ClusterFrame > handler ) {
+        this.localNodeId = localNodeId;
+        try {
+            // Hashing gives a fixed-size key even for an empty secret, which HMAC keys may not be
+            byte[] keyBytes = MessageDigest.getInstance( "SHA-256" ).digest( secret.getBytes( StandardCharsets.UTF_8 ) );
+            this.key = new SecretKeySpec( keyBytes, MAC_ALGORITHM );
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException( "SHA-256 is not available", e );
+        }
+        this.handler = handler;
+    }
+
+    /**
+     * Starts listening for inbound connections on the given host and port.
+     *
+     * @param host the host (interface) to bind to
+     * @param port the port to listen on
+     * @throws IOException if the address cannot be bound
+     */
+    public void start( String host, int port ) throws IOException {
+        serverSocket = new ServerSocket( );
+        serverSocket.bind( new InetSocketAddress( host, port ) );
+        running = true;
+        Thread.ofVirtual( ).name( "cluster-accept" ).start( this::acceptLoop );
+        log.info( "Cluster link of node {} listening on {}:{}", localNodeId, host, port );
+    }
+
+    /**
+     * Queues a frame for the given member without blocking.
+     * When the peer's queue is full, room states are dropped first since the next state supersedes them;
+     * other frames make room by evicting queued room states.
+     *
+     * @param member the member to send to
+     * @param frame  the frame to send
+     * @return whether the frame was queued
+     */
+    public boolean send( ClusterMember member, ClusterFrame frame ) {
+        Peer peer = peers.computeIfAbsent( member.getNodeId( ), id -> new Peer( member ) );
+        if ( peer.offer( frame ) ) {
+            return true;
+        }
+        log.warn( "Dropping {} frame for node {}: outbound queue full", frame.getType( ), member.getNodeId( ) );
+        return false;
+    }
+
+    /**
+     * Closes the outbound connection to the given node, if any, once the frames already queued for it are delivered
+     * or the drain timeout expires. Frames sent to the node afterwards open a new connection.
+     *
+     * @param nodeId the ID of the node
+     */
+    public void disconnect( String nodeId ) {
+        Peer peer = peers.remove( nodeId );
+        if ( peer != null ) {
+            peer.closeWhenFlushed( );
+        }
+    }
+
+    /**
+     * Stops listening and closes every outbound connection.
+     */
+    public void stop( ) {
+        running = false;
+        try {
+            if ( serverSocket != null ) {
+                serverSocket.close( );
+            }
+        } catch (IOException e) {
+            log.error( "Error closing cluster link: {}", e.getMessage( ) );
+        }
+        peers.values( ).forEach( Peer::close );
+        peers.clear( );
+    }
+
+    /**
+     * Accepts inbound connections and reads each of them on its own virtual thread.
+     */
+    private void acceptLoop( ) {
+        while ( running ) {
+            try {
+                Socket socket = serverSocket.accept( );
+                socket.setTcpNoDelay( true );
+                Thread.ofVirtual( ).name( "cluster-read" ).start( ( ) -> readLoop( socket ) );
+            } catch (IOException e) {
+                if ( running ) {
+                    log.error( "Error accepting cluster connection: {}", e.getMessage( ) );
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads frames from an inbound connection until it is closed.
+     * The connection starts with the handshake: this node sends a HELLO with a challenge, the sender answers with a
+     * HELLO carrying its node ID, its own challenge and its proof, and this node replies with its proof.
+     *
+     * @param socket the inbound connection
+     */
+    private void readLoop( Socket socket ) {
+        try ( socket; DataInputStream in = new DataInputStream( new BufferedInputStream( socket.getInputStream( ) ) ) ) {
+            DataOutputStream out = new DataOutputStream( new BufferedOutputStream( socket.getOutputStream( ) ) );
+            socket.setSoTimeout( HANDSHAKE_TIMEOUT_MILLIS );
+            byte[] challenge = newNonce( );
+            new ClusterFrame( FrameType.HELLO, null, localNodeId, challenge ).writeTo( out );
+            out.flush( );
+
+            ClusterFrame hello = ClusterFrame.readFrom( in );
+            if ( hello.getType( ) != FrameType.HELLO || hello.getPlayerId( ).isEmpty( ) || hello.getPayload( ).length <= NONCE_BYTES ) {
+                log.warn( "Dropping cluster connection from {} that did not answer with HELLO", socket.getRemoteSocketAddress( ) );
+                return;
+            }
+            String senderNodeId = hello.getPlayerId( );
+            byte[] senderChallenge = Arrays.copyOfRange( hello.getPayload( ), 0, NONCE_BYTES );
+            byte[] proof = Arrays.copyOfRange( hello.getPayload( ), NONCE_BYTES, hello.getPayload( ).length );
+            if ( !MessageDigest.isEqual( proof( CONNECT_PROOF, challenge, senderNodeId ), proof ) ) {
+                log.warn( "Dropping cluster connection from {}: wrong cluster secret", socket.getRemoteSocketAddress( ) );
+                return;
+            }
+            new ClusterFrame( FrameType.HELLO, null, localNodeId, proof( ACCEPT_PROOF, senderChallenge, localNodeId ) ).writeTo( out );
+            out.flush( );
+            socket.setSoTimeout( 0 );
+
+            log.info( "Node {} connected to node {}", senderNodeId, localNodeId );
+            while ( running ) {
+                ClusterFrame frame = ClusterFrame.readFrom( in );
+                try {
+                    handler.accept( senderNodeId, frame );
+                } catch (RuntimeException e) {
+                    log.error( "Error handling {} frame from node {}: {}", frame.getType( ), senderNodeId, e.getMessage( ) );
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if ( running ) {
+                log.info( "Cluster connection closed: {}", e.getMessage( ) );
+            }
+        }
+    }
+
+    /**
+     * Returns a fresh random challenge.
+     */
+    private byte[] newNonce( ) {
+        byte[] nonce = new byte[NONCE_BYTES];
+        random.nextBytes( nonce );
+        return nonce;
+    }
+
+    /**
+     * Computes the proof that a node knows the shared secret: an HMAC over the proof label, the other end's
+     * challenge and the proving node's ID.
+     *
+     * @param label     {@link #CONNECT_PROOF} or {@link #ACCEPT_PROOF}
+     * @param challenge the challenge sent by the other end
+     * @param nodeId    the ID of the proving node
+     * @return the proof
+     */
+    private byte[] proof( byte label, byte[] challenge, String nodeId ) {
+        try {
+            Mac mac = Mac.getInstance( MAC_ALGORITHM );
+            mac.init( key );
+            mac.update( label );
+            mac.update( challenge );
+            mac.update( nodeId.getBytes( StandardCharsets.UTF_8 ) );
+            return mac.doFinal( );
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException( MAC_ALGORITHM + " is not available", e );
+        }
+    }
+
+    /**
+     * Outbound connection to a single peer, written only by the peer's own writer thread.
+     * A failed connect or write drops the connection and the writer reconnects after a short backoff, then sends the
+     * frames that were not flushed before the failure again.
+     */
+    private class Peer {
+        private final ClusterMember member;
+        private final BlockingQueue< ClusterFrame > queue = new ArrayBlockingQueue<>( QUEUE_CAPACITY );
+        /** Frames written since the last flush; only touched by the writer thread. */
+        private final List< ClusterFrame > unflushed = new ArrayList<>( );
+        /** Frames to send again, in order, before taking new ones from the queue; only touched by the writer thread. */
+        private final Deque< ClusterFrame > retry = new ArrayDeque<>( );
+        private final Thread writer;
+        private volatile boolean closed;
+        /** Time after which a peer that is closing gives up on its remaining frames, or 0 while it is open. */
+        private volatile long drainDeadline;
+        private Socket socket;
+        private DataOutputStream out;
+
+        Peer( ClusterMember member ) {
+            this.member = member;
+            this.writer = Thread.ofVirtual( ).name( "cluster-write-" + member.getNodeId( ) ).start( this::writeLoop );
+        }
+
+        boolean offer( ClusterFrame frame ) {
+            if ( closed || drainDeadline != 0 ) {
+                return false;
+            }
+            if ( queue.offer( frame ) ) {
+                return true;
+            }
+            if ( frame.getType( ) == FrameType.ROOM_STATE ) {
+                return false;
+            }
+            queue.removeIf( queued -> queued.getType( ) == FrameType.ROOM_STATE );
+            return queue.offer( frame );
+        }
+
+        private void writeLoop( ) {
+            while ( !closed ) {
+                ClusterFrame frame = retry.pollFirst( );
+                if ( frame == null ) {
+                    try {
+                        frame = queue.poll( POLL_MILLIS, TimeUnit.MILLISECONDS );
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+                if ( frame == null ) {
+                    if ( drainDeadline != 0 ) {
+                        break;
+                    }
+                    continue;
+                }
+                try {
+                    if ( out == null ) {
+                        connect( );
+                    }
+                    frame.writeTo( out );
+                    unflushed.add( frame );
+                    if ( unflushed.size( ) >= MAX_UNFLUSHED || ( retry.isEmpty( ) && queue.isEmpty( ) ) ) {
+                        out.flush( );
+                        unflushed.clear( );
+                    }
+                } catch (IOException e) {
+                    log.error( "Error sending {} frame to node {}: {}", frame.getType( ), member.getNodeId( ), e.getMessage( ) );
+                    closeSocket( );
+                    requeueUnflushed( frame );
+                    if ( drainDeadline != 0 && System.currentTimeMillis( ) > drainDeadline ) {
+                        log.warn( "Giving up {} frames for disconnected node {}", retry.size( ) + queue.size( ), member.getNodeId( ) );
+                        break;
+                    }
+                    try {
+                        Thread.sleep( RECONNECT_BACKOFF_MILLIS );
+                    } catch (InterruptedException interrupted) {
+                        break;
+                    }
+                }
+            }
+            closeSocket( );
+        }
+
+        /**
+         * Puts the frames that may not have reached the peer, including the one that failed, back in front of the
+         * queue. Room states are dropped since the next state supersedes them.
+         *
+         * @param failed the frame whose connect, write or flush failed
+         */
+        private void requeueUnflushed( ClusterFrame failed ) {
+            List< ClusterFrame > resend = new ArrayList<>( unflushed );
+            if ( resend.isEmpty( ) || resend.get( resend.size( ) - 1 ) != failed ) {
+                resend.add( failed );
+            }
+            unflushed.clear( );
+            for ( int i = resend.size( ) - 1; i >= 0; i-- ) {
+                if ( resend.get( i ).getType( ) != FrameType.ROOM_STATE ) {
+                    retry.addFirst( resend.get( i ) );
+                }
+            }
+        }
+
+        /**
+         * Connects to the peer and runs the connecting side of the handshake described in {@link #readLoop(Socket)}.
+         * The peer must prove that it knows the secret and that it is the expected node before any frame is sent.
+         *
+         * @throws IOException if the peer cannot be reached or fails the handshake
+         */
+        private void connect( ) throws IOException {
+            socket = new Socket( );
+            socket.setTcpNoDelay( true );
+            socket.connect( new InetSocketAddress( member.getHost( ), member.getPort( ) ), CONNECT_TIMEOUT_MILLIS );
+            socket.setSoTimeout( HANDSHAKE_TIMEOUT_MILLIS );
+            DataInputStream in = new DataInputStream( new BufferedInputStream( socket.getInputStream( ) ) );
+            out = new DataOutputStream( new BufferedOutputStream( socket.getOutputStream( ) ) );
+
+            ClusterFrame challenge = ClusterFrame.readFrom( in );
+            if ( challenge.getType( ) != FrameType.HELLO ) {
+                throw new IOException( "Node did not start the handshake with HELLO" );
+            }
+            byte[] ownChallenge = newNonce( );
+            byte[] proof = proof( CONNECT_PROOF, challenge.getPayload( ), localNodeId );
+            byte[] payload = Arrays.copyOf( ownChallenge, NONCE_BYTES + proof.length );
+            System.arraycopy( proof, 0, payload, NONCE_BYTES, proof.length );
+            new ClusterFrame( FrameType.HELLO, null, localNodeId, payload ).writeTo( out );
+            out.flush( );
+
+            ClusterFrame accepted = ClusterFrame.readFrom( in );
+            if ( accepted.getType( ) != FrameType.HELLO
+                    || !MessageDigest.isEqual( proof( ACCEPT_PROOF, ownChallenge, member.getNodeId( ) ), accepted.getPayload( ) ) ) {
+                throw new IOException( "Node failed the cluster handshake: wrong secret or node ID" );
+            }
+            socket.setSoTimeout( 0 );
+        }
+
+        private void closeSocket( ) {
+            try {
+                if ( socket != null ) {
+                    socket.close( );
+                }
+            } catch (IOException e) {
+                log.error( "Error closing connection to node {}: {}", member.getNodeId( ), e.getMessage( ) );
+            }
+            socket = null;
+            out = null;
+        }
+
+        /**
+         * Stops accepting frames and closes the connection once the queued ones are delivered or the drain timeout
+         * expires.
+         */
+        void closeWhenFlushed( ) {
+            drainDeadline = System.currentTimeMillis( ) + DRAIN_TIMEOUT_MILLIS;
+        }
+
+        void close( ) {
+            closed = true;
+            queue.clear( );
+            writer.interrupt( );
+        }
+    }
+}
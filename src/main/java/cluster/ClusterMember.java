@@ -0,0 +1,60 @@
+package cluster;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Represents a node of the game cluster.
+ * A member is identified by its node ID and reachable on the given host and internal link port.
+ */
+@Getter
+@EqualsAndHashCode
+public class ClusterMember {
+    private final String nodeId;
+    private final String host;
+    private final int port;
+
+    /**
+     * Constructs a cluster member.
+     *
+     * @param nodeId the unique ID of the node
+     * @param host   the host the node's internal link listens on
+     * @param port   the port the node's internal link listens on
+     */
+    public ClusterMember( String nodeId, String host, int port ) {
+        this.nodeId = nodeId;
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Parses a member from its textual form {@code nodeId@host:port}.
+     *
+     * @param spec the textual form of the member
+     * @return the parsed member
+     * @throws IllegalArgumentException if the spec is malformed
+     */
+    public static ClusterMember parse( String spec ) {
+        String trimmed = spec == null ? "" : spec.trim( );
+        int at = trimmed.indexOf( '@' );
+        int colon = trimmed.lastIndexOf( ':' );
+        if ( at <= 0 || colon <= at + 1 || colon == trimmed.length( ) - 1 ) {
+            throw new IllegalArgumentException( "Cluster member must look like nodeId@host:port but was '" + spec + "'" );
+        }
+        try {
+            return new ClusterMember( trimmed.substring( 0, at ), trimmed.substring( at + 1, colon ), Integer.parseInt( trimmed.substring( colon + 1 ) ) );
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException( "Invalid port in cluster member '" + spec + "'" );
+        }
+    }
+
+    /**
+     * Returns the textual form of the member, {@code nodeId@host:port}.
+     *
+     * @return the textual form of the member
+     */
+    @Override
+    public String toString( ) {
+        return nodeId + "@" + host + ":" + port;
+    }
+}
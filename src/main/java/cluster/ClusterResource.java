@@ -0,0 +1,118 @@
+package cluster;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.ForbiddenException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import services.GameService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * REST endpoint for inspecting and changing the cluster membership list.
+ * Changes made on any node are propagated to all other nodes.
+ * Every request must present the cluster secret in the {@value #SECRET_HEADER} header; without a configured secret
+ * the endpoint refuses all requests.
+ */
+@Path( "/cluster" )
+@Produces( MediaType.APPLICATION_JSON )
+public class ClusterResource {
+
+    /**
+     * Request header carrying the cluster secret.
+     */
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    @Inject
+    ClusterService clusterService;
+
+    @Inject
+    GameService gameService;
+
+    /**
+     * Returns this node's view of the cluster: its ID, the members of the ring and the rooms it hosts.
+     *
+     * @param presented the cluster secret presented by the client
+     * @return the cluster view
+     */
+    @GET
+    public Map< String, Object > status( @HeaderParam( SECRET_HEADER ) String presented ) {
+        requireSecret( presented );
+        return view( );
+    }
+
+    /**
+     * Builds this node's view of the cluster.
+     *
+     * @return the cluster view
+     */
+    private Map< String, Object > view( ) {
+        Map< String, Object > status = new HashMap<>( );
+        status.put( "enabled", clusterService.isEnabled( ) );
+        status.put( "nodeId", clusterService.getNodeId( ) );
+        status.put( "members", clusterService.getMembers( ).stream( ).map( ClusterMember::toString ).toList( ) );
+        status.put( "rooms", new TreeSet<>( gameService.getRooms( ).keySet( ) ) );
+        return status;
+    }
+
+    /**
+     * Adds a node to the cluster.
+     *
+     * @param presented the cluster secret presented by the client
+     * @param spec      the new member as {@code nodeId@host:port}
+     * @return the updated cluster view
+     */
+    @POST
+    @Path( "/members" )
+    @Consumes( MediaType.TEXT_PLAIN )
+    public Map< String, Object > addMember( @HeaderParam( SECRET_HEADER ) String presented, String spec ) {
+        requireSecret( presented );
+        try {
+            clusterService.addMember( ClusterMember.parse( spec ) );
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new BadRequestException( e.getMessage( ) );
+        }
+        return view( );
+    }
+
+    /**
+     * Drains a node so that its rooms move to the remaining members.
+     *
+     * @param presented the cluster secret presented by the client
+     * @param nodeId    the ID of the node to drain
+     * @return the updated cluster view
+     */
+    @DELETE
+    @Path( "/members/{nodeId}" )
+    public Map< String, Object > drainMember( @HeaderParam( SECRET_HEADER ) String presented, @PathParam( "nodeId" ) String nodeId ) {
+        requireSecret( presented );
+        try {
+            clusterService.drainMember( nodeId );
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new BadRequestException( e.getMessage( ) );
+        }
+        return view( );
+    }
+
+    /**
+     * Rejects the request unless it presents the cluster secret.
+     *
+     * @param presented the cluster secret presented by the client
+     * @throws ForbiddenException if the secret is missing or wrong
+     */
+    private void requireSecret( String presented ) {
+        if ( !clusterService.isSecret( presented ) ) {
+            throw new ForbiddenException( "Missing or wrong " + SECRET_HEADER + " header" );
+        }
+    }
+}
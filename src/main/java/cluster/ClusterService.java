@@ -0,0 +1,632 @@
+package cluster;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import models.Direction;
+import models.GameState;
+import models.Player;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import overload.OverloadController;
+import services.GameService;
+import services.SpectatorService;
+import websocket.GameWebSocket;
+import websocket.RoomSnapshot;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service that distributes rooms across the nodes of the cluster.
+ * Rooms are assigned to nodes by consistent hashing over the built-in membership list. Any node accepts
+ * {@code /game} connections: players of rooms owned by this node are hosted locally, all others are
+ * relayed to the owning node over the internal binary {@link ClusterLink}. When a node is added or
+ * drained, every room whose owner changed is migrated to its new owner and relayed players re-attach.
+ * With cluster mode disabled every room is local and this service is a no-op.
+ */
+@ApplicationScoped
+@Slf4j
+public class ClusterService {
+
+    private static final String WATCHER_PREFIX = "watcher:";
+
+    /** JOIN flag marking a player that re-attaches after a membership change rather than a new player. */
+    private static final byte JOIN_REATTACH = 1;
+    private static final int MAX_ROUTING_ATTEMPTS = 10;
+    private static final long ROUTING_RETRY_MILLIS = 200;
+
+    @Getter
+    @ConfigProperty( name = "snake.cluster.enabled", defaultValue = "false" )
+    boolean enabled;
+
+    @Getter
+    @ConfigProperty( name = "snake.cluster.node-id", defaultValue = "node-1" )
+    String nodeId;
+
+    @ConfigProperty( name = "snake.cluster.host", defaultValue = "localhost" )
+    String host;
+
+    @ConfigProperty( name = "snake.cluster.port", defaultValue = "9101" )
+    int port;
+
+    @ConfigProperty( name = "snake.cluster.secret" )
+    Optional< String > secret;
+
+    @ConfigProperty( name = "snake.cluster.members" )
+    Optional< List< String > > configuredMembers;
+
+    @ConfigProperty( name = "snake.cluster.virtual-nodes", defaultValue = "64" )
+    int virtualNodes;
+
+    @Inject
+    GameService gameService;
+
+    @Inject
+    GameWebSocket gameWebSocket;
+
+    @Inject
+    SpectatorService spectatorService;
+
+    @Inject
+    OverloadController overloadController;
+
+    private volatile ConsistentHashRing ring = new ConsistentHashRing( List.of( ), 0 );
+    private ClusterLink link;
+
+    /**
+     * Players relayed to this node by other nodes, per room.
+     * Key: room ID. Value: map of player ID to the ID of the node the player is connected to.
+     * Nodes watching a room for their spectators are registered under {@link #WATCHER_PREFIX} plus their node ID.
+     */
+    private final Map< String, Map< String, String > > relayedPlayers = new ConcurrentHashMap<>( );
+
+    /**
+     * Every node ever seen in a membership list, keyed by node ID.
+     * Drained nodes stay here because they keep relaying their connected players.
+     */
+    private final Map< String, ClusterMember > knownMembers = new ConcurrentHashMap<>( );
+
+    /**
+     * Starts the internal link and builds the initial ring from the configured members.
+     *
+     * @param event the startup event
+     * @throws IOException if the link port cannot be bound
+     */
+    void onStart( @Observes StartupEvent event ) throws IOException {
+        if ( !enabled ) {
+            return;
+        }
+        List< ClusterMember > members = new ArrayList<>( );
+        configuredMembers.orElse( List.of( ) ).forEach( spec -> members.add( ClusterMember.parse( spec ) ) );
+        if ( members.stream( ).noneMatch( m -> m.getNodeId( ).equals( nodeId ) ) ) {
+            members.add( new ClusterMember( nodeId, host, port ) );
+        }
+        members.forEach( m -> knownMembers.put( m.getNodeId( ), m ) );
+        ring = new ConsistentHashRing( members, virtualNodes );
+        if ( secret.isEmpty( ) ) {
+            log.warn( "snake.cluster.secret is not set; any host that can reach port {} can join the cluster, "
+                    + "and membership cannot be changed over HTTP", port );
+        }
+        link = new ClusterLink( nodeId, secret.orElse( "" ), this::handleFrame );
+        link.start( host, port );
+        log.info( "Cluster node {} started with members {}", nodeId, members );
+    }
+
+    /**
+     * Stops the internal link.
+     *
+     * @param event the shutdown event
+     */
+    void onStop( @Observes ShutdownEvent event ) {
+        if ( link != null ) {
+            link.stop( );
+        }
+    }
+
+    /**
+     * Returns the current members of the ring.
+     *
+     * @return the current members
+     */
+    public List< ClusterMember > getMembers( ) {
+        return ring.getMembers( );
+    }
+
+    /**
+     * Returns whether the given value is the configured cluster secret. Without a configured secret nothing matches,
+     * so membership cannot be changed over HTTP.
+     *
+     * @param presented the secret presented by a client, may be {@code null}
+     * @return whether the secret matches
+     */
+    public boolean isSecret( String presented ) {
+        return presented != null && secret.isPresent( )
+                && MessageDigest.isEqual( secret.get( ).getBytes( StandardCharsets.UTF_8 ), presented.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * Builds a player ID that is unique across the cluster from a node-local WebSocket session ID.
+     *
+     * @param sessionId the WebSocket session ID
+     * @return the cluster-wide player ID
+     */
+    public String playerIdFor( String sessionId ) {
+        return enabled ? nodeId + "-" + sessionId : sessionId;
+    }
+
+    /**
+     * Returns whether the given room is hosted on this node.
+     *
+     * @param roomId the room's ID
+     * @return whether the room is local
+     */
+    public boolean isLocal( String roomId ) {
+        return !enabled || isOwnedBy( ring, roomId, nodeId );
+    }
+
+    /**
+     * Joins a player connected to this node to their room, locally or on the owning node.
+     *
+     * @param player the player, with their ID and room set
+     */
+    public void join( Player player ) {
+        if ( isLocal( player.getRoomId( ) ) ) {
+            gameService.addPlayer( player.getRoomId( ), player.getId( ), player );
+        } else {
+            sendToOwner( new ClusterFrame( FrameType.JOIN, player.getRoomId( ), player.getId( ), new byte[]{ 0, 0 } ) );
+        }
+    }
+
+    /**
+     * Moves a player connected to this node, locally or on the owning node.
+     *
+     * @param player    the player
+     * @param direction the direction the player wants to move their snake
+     */
+    public void move( Player player, String direction ) {
+        if ( isLocal( player.getRoomId( ) ) ) {
+            gameService.movePlayer( player.getRoomId( ), player.getId( ), direction );
+            return;
+        }
+        if ( direction == null ) {
+            return;
+        }
+        try {
+            byte ordinal = ( byte ) Direction.valueOf( direction.toUpperCase( ) ).ordinal( );
+            sendToOwner( new ClusterFrame( FrameType.MOVE, player.getRoomId( ), player.getId( ), new byte[]{ ordinal } ) );
+        } catch (IllegalArgumentException e) {
+            log.error( "Invalid direction '{}' for player {}", direction, player.getId( ) );
+        }
+    }
+
+    /**
+     * Removes a player connected to this node from their room, locally or on the owning node.
+     *
+     * @param player the player
+     */
+    public void leave( Player player ) {
+        if ( isLocal( player.getRoomId( ) ) ) {
+            gameService.removePlayer( player.getRoomId( ), player.getId( ) );
+        } else {
+            sendToOwner( new ClusterFrame( FrameType.LEAVE, player.getRoomId( ), player.getId( ), null ) );
+        }
+    }
+
+    /**
+     * Asks the owner of a room to forward the room's states to this node for its spectators.
+     *
+     * @param roomId the room's ID
+     */
+    public void watch( String roomId ) {
+        if ( !isLocal( roomId ) ) {
+            sendToOwner( new ClusterFrame( FrameType.WATCH, roomId, null, new byte[]{ 0, 0 } ) );
+        }
+    }
+
+    /**
+     * Tells the owner of a room that this node no longer has spectators for it.
+     *
+     * @param roomId the room's ID
+     */
+    public void unwatch( String roomId ) {
+        if ( !isLocal( roomId ) ) {
+            sendToOwner( new ClusterFrame( FrameType.UNWATCH, roomId, null, null ) );
+        }
+    }
+
+    /**
+     * Returns whether other nodes relay players of the room or watch it.
+     *
+     * @param roomId the room's ID
+     * @return whether room states are forwarded to other nodes
+     */
+    public boolean isRelayed( String roomId ) {
+        Map< String, String > relayed = relayedPlayers.get( roomId );
+        return enabled && relayed != null && !relayed.isEmpty( );
+    }
+
+    /**
+     * Forwards a room state to every node that relays players of the room or watches it.
+     * Each node receives the state once and fans it out to its own sessions, narrowing it per region if asked to.
+     *
+     * @param roomId   the room's ID
+     * @param snapshot the encoded game state
+     * @param narrowed whether relayed players should only receive nearby snakes
+     */
+    public void forwardRoomState( String roomId, RoomSnapshot snapshot, boolean narrowed ) {
+        Map< String, String > relayed = relayedPlayers.get( roomId );
+        if ( !enabled || relayed == null || relayed.isEmpty( ) ) {
+            return;
+        }
+        byte[] payload = encodeRoomState( snapshot, narrowed );
+        for ( String target : new HashSet<>( relayed.values( ) ) ) {
+            sendTo( target, new ClusterFrame( FrameType.ROOM_STATE, roomId, null, payload ) );
+        }
+    }
+
+    /**
+     * Forwards a message to a player relayed to this node from another node.
+     *
+     * @param playerId the player's ID
+     * @param message  the encoded message
+     */
+    public void forwardToPlayer( String playerId, String message ) {
+        if ( !enabled ) {
+            return;
+        }
+        for ( Map.Entry< String, Map< String, String > > room : relayedPlayers.entrySet( ) ) {
+            String target = room.getValue( ).get( playerId );
+            if ( target != null ) {
+                sendTo( target, new ClusterFrame( FrameType.PLAYER_MESSAGE, room.getKey( ), playerId, message.getBytes( StandardCharsets.UTF_8 ) ) );
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds a node to the cluster and propagates the new membership list to every node.
+     *
+     * @param member the member to add
+     */
+    public void addMember( ClusterMember member ) {
+        requireEnabled( );
+        List< ClusterMember > members = new ArrayList<>( ring.getMembers( ) );
+        members.removeIf( m -> m.getNodeId( ).equals( member.getNodeId( ) ) );
+        members.add( member );
+        applyMembership( members, true );
+    }
+
+    /**
+     * Drains a node: removes it from the ring so that its rooms move to the remaining nodes.
+     * The drained node keeps running and relays its connected players to the new owners.
+     *
+     * @param drainedNodeId the ID of the node to drain
+     */
+    public void drainMember( String drainedNodeId ) {
+        requireEnabled( );
+        List< ClusterMember > members = new ArrayList<>( ring.getMembers( ) );
+        if ( !members.removeIf( m -> m.getNodeId( ).equals( drainedNodeId ) ) ) {
+            throw new IllegalArgumentException( "Unknown cluster member: " + drainedNodeId );
+        }
+        if ( members.isEmpty( ) ) {
+            throw new IllegalArgumentException( "Cannot drain the last cluster member" );
+        }
+        applyMembership( members, true );
+    }
+
+    /**
+     * Handles a frame received from another node.
+     * JOIN, MOVE and WATCH frames for rooms this node does not own are not applied, so that a sender with a stale
+     * ring cannot recreate a room that has already moved away; rejected JOIN and WATCH frames are answered with
+     * NOT_OWNER so the sender can route them again.
+     *
+     * @param senderNodeId the ID of the sending node
+     * @param frame        the received frame
+     */
+    private void handleFrame( String senderNodeId, ClusterFrame frame ) {
+        String roomId = frame.getRoomId( );
+        String playerId = frame.getPlayerId( );
+        switch (frame.getType( )) {
+            case JOIN -> {
+                if ( rejectIfNotOwner( senderNodeId, frame ) ) {
+                    return;
+                }
+                if ( isRefused( roomId, playerId, frame.getPayload( ) ) ) {
+                    log.warn( "Refusing relayed player {} for room {}: server overloaded", playerId, roomId );
+                    sendTo( senderNodeId, new ClusterFrame( FrameType.JOIN_REFUSED, roomId, playerId, null ) );
+                    return;
+                }
+                relayedPlayers.computeIfAbsent( roomId, id -> new ConcurrentHashMap<>( ) ).put( playerId, senderNodeId );
+                if ( !gameService.hasPlayer( roomId, playerId ) ) {
+                    gameService.addPlayer( roomId, playerId, new Player( playerId, "Player" + playerId, null, roomId ) );
+                }
+                gameWebSocket.broadcastGameState( roomId );
+            }
+            case MOVE -> {
+                if ( isLocal( roomId ) ) {
+                    gameService.movePlayer( roomId, playerId, Direction.values( )[frame.getPayload( )[0]].name( ) );
+                } else {
+                    log.debug( "Dropping move of player {} for room {} not owned by node {}", playerId, roomId, nodeId );
+                }
+            }
+            case LEAVE -> {
+                Map< String, String > relayed = relayedPlayers.get( roomId );
+                if ( relayed != null ) {
+                    relayed.remove( playerId );
+                }
+                gameService.removePlayer( roomId, playerId );
+            }
+            case ROOM_STATE -> {
+                byte[] payload = frame.getPayload( );
+                try {
+                    RoomSnapshot snapshot = RoomSnapshot.decode( payload, 1 );
+                    // Relayed players are paced and narrowed by this node's own level too
+                    boolean narrowed = payload[0] == 1 || overloadController.isInterestNarrowed( );
+                    if ( overloadController.allowBroadcast( roomId, ( ) -> gameWebSocket.deliverRoomState( roomId, snapshot, narrowed ) ) ) {
+                        gameWebSocket.deliverRoomState( roomId, snapshot, narrowed );
+                    }
+                    spectatorService.publish( roomId, snapshot::toJson );
+                } catch (IOException | IndexOutOfBoundsException e) {
+                    log.error( "Malformed state of room {} from node {}: {}", roomId, senderNodeId, e.getMessage( ) );
+                }
+            }
+            case PLAYER_MESSAGE -> gameWebSocket.deliverToPlayer( playerId, new String( frame.getPayload( ), StandardCharsets.UTF_8 ) );
+            case MIGRATE -> {
+                ClusterMember owner = ring.ownerOf( roomId );
+                if ( owner != null && !owner.getNodeId( ).equals( nodeId ) && !owner.getNodeId( ).equals( senderNodeId ) ) {
+                    // Our ring disagrees with the sender's; pass the room on rather than hosting or losing it
+                    link.send( owner, frame );
+                    log.info( "Room {} from node {} passed on to node {}", roomId, senderNodeId, owner.getNodeId( ) );
+                    return;
+                }
+                gameService.updateRoom( roomId, gameState -> GameStateCodec.decodeInto( frame.getPayload( ), gameState ) );
+                log.info( "Room {} migrated from node {} to node {}", roomId, senderNodeId, nodeId );
+            }
+            case WATCH -> {
+                if ( !rejectIfNotOwner( senderNodeId, frame ) ) {
+                    relayedPlayers.computeIfAbsent( roomId, id -> new ConcurrentHashMap<>( ) ).put( WATCHER_PREFIX + senderNodeId, senderNodeId );
+                    // Give the new watcher a first frame even if the room is idle
+                    gameWebSocket.currentSnapshot( roomId ).ifPresent( snapshot -> sendTo( senderNodeId,
+                            new ClusterFrame( FrameType.ROOM_STATE, roomId, null, encodeRoomState( snapshot, false ) ) ) );
+                }
+            }
+            case UNWATCH -> {
+                Map< String, String > relayed = relayedPlayers.get( roomId );
+                if ( relayed != null ) {
+                    relayed.remove( WATCHER_PREFIX + senderNodeId );
+                }
+            }
+            case JOIN_REFUSED -> gameWebSocket.refusePlayer( playerId );
+            case NOT_OWNER -> scheduleRetry( roomId, playerId, frame.getPayload( ) );
+            case MEMBERSHIP -> applyMembership( decodeMembers( frame.getPayload( ) ), false );
+            default -> log.warn( "Unexpected {} frame from node {}", frame.getType( ), senderNodeId );
+        }
+    }
+
+    /**
+     * Returns whether a relayed join must be refused because this node is overloaded.
+     * Players re-attaching after a membership change, and players that already have a snake here, are never refused.
+     *
+     * @param roomId      the room's ID
+     * @param playerId    the player's ID
+     * @param joinPayload the JOIN payload, starting with its flags
+     * @return whether the join is refused
+     */
+    private boolean isRefused( String roomId, String playerId, byte[] joinPayload ) {
+        boolean reattach = joinPayload.length > 0 && ( joinPayload[0] & JOIN_REATTACH ) != 0;
+        return !reattach && overloadController.isRefusingJoins( ) && !gameService.hasPlayer( roomId, playerId );
+    }
+
+    /**
+     * Answers a JOIN or WATCH frame with NOT_OWNER if this node does not own the frame's room.
+     *
+     * @param senderNodeId the ID of the sending node
+     * @param frame        the received frame
+     * @return whether the frame was rejected
+     */
+    private boolean rejectIfNotOwner( String senderNodeId, ClusterFrame frame ) {
+        if ( isLocal( frame.getRoomId( ) ) ) {
+            return false;
+        }
+        byte[] payload = new byte[frame.getPayload( ).length + 1];
+        payload[0] = frame.getType( ).code( );
+        System.arraycopy( frame.getPayload( ), 0, payload, 1, frame.getPayload( ).length );
+        sendTo( senderNodeId, new ClusterFrame( FrameType.NOT_OWNER, frame.getRoomId( ), frame.getPlayerId( ), payload ) );
+        log.info( "Node {} does not own room {}; rejected {} from node {}", nodeId, frame.getRoomId( ), frame.getType( ), senderNodeId );
+        return true;
+    }
+
+    /**
+     * Routes a rejected JOIN or WATCH frame again after a short delay, once rings had time to converge.
+     *
+     * @param roomId   the room's ID
+     * @param playerId the player's ID, empty for WATCH
+     * @param rejected the NOT_OWNER payload: the rejected frame's type code, flags and attempt count
+     */
+    private void scheduleRetry( String roomId, String playerId, byte[] rejected ) {
+        if ( rejected.length < 3 ) {
+            return;
+        }
+        FrameType type = FrameType.fromCode( rejected[0] );
+        byte flags = rejected[1];
+        int attempt = rejected[2] + 1;
+        if ( attempt > MAX_ROUTING_ATTEMPTS ) {
+            log.warn( "Giving up routing {} for room {} after {} attempts", type, roomId, attempt - 1 );
+            return;
+        }
+        CompletableFuture.delayedExecutor( ROUTING_RETRY_MILLIS, TimeUnit.MILLISECONDS ).execute( ( ) -> {
+            if ( type == FrameType.JOIN ) {
+                gameWebSocket.getLocalPlayer( playerId )
+                        .filter( player -> roomId.equals( player.getRoomId( ) ) )
+                        .ifPresent( player -> {
+                            if ( !isLocal( roomId ) ) {
+                                sendToOwner( new ClusterFrame( FrameType.JOIN, roomId, playerId, new byte[]{ flags, ( byte ) attempt } ) );
+                            } else if ( isRefused( roomId, playerId, new byte[]{ flags } ) ) {
+                                gameWebSocket.refusePlayer( playerId );
+                            } else if ( !gameService.hasPlayer( roomId, playerId ) ) {
+                                gameService.addPlayer( roomId, playerId, player );
+                            }
+                        } );
+            } else if ( type == FrameType.WATCH && spectatorService.getWatchedRooms( ).contains( roomId ) && !isLocal( roomId ) ) {
+                sendToOwner( new ClusterFrame( FrameType.WATCH, roomId, null, new byte[]{ flags, ( byte ) attempt } ) );
+            }
+        } );
+    }
+
+    /**
+     * Installs a new membership list and moves rooms and relayed players accordingly.
+     * Rooms hosted here that now belong to another node are migrated to it, followed by a JOIN for each
+     * of this node's own players, which arrives after the room itself because both share one connection.
+     * Rooms watched by this node's spectators are re-subscribed at their new owner.
+     *
+     * @param members   the new membership list
+     * @param propagate whether to send the new list to the other nodes
+     */
+    private synchronized void applyMembership( List< ClusterMember > members, boolean propagate ) {
+        ConsistentHashRing oldRing = ring;
+        ConsistentHashRing newRing = new ConsistentHashRing( members, virtualNodes );
+        ring = newRing;
+        members.forEach( m -> knownMembers.put( m.getNodeId( ), m ) );
+        log.info( "Cluster membership changed to {}", members );
+
+        if ( propagate ) {
+            Set< ClusterMember > targets = new LinkedHashSet<>( oldRing.getMembers( ) );
+            targets.addAll( members );
+            byte[] payload = encodeMembers( members );
+            for ( ClusterMember target : targets ) {
+                if ( !target.getNodeId( ).equals( nodeId ) ) {
+                    link.send( target, new ClusterFrame( FrameType.MEMBERSHIP, null, null, payload ) );
+                }
+            }
+        }
+        for ( ClusterMember previous : oldRing.getMembers( ) ) {
+            if ( !members.contains( previous ) && !previous.getNodeId( ).equals( nodeId ) ) {
+                // Reconnect lazily in case the node was re-added under a different address
+                link.disconnect( previous.getNodeId( ) );
+            }
+        }
+
+        for ( String roomId : new ArrayList<>( gameService.getRooms( ).keySet( ) ) ) {
+            ClusterMember newOwner = newRing.ownerOf( roomId );
+            if ( newOwner != null && !newOwner.getNodeId( ).equals( nodeId ) ) {
+                GameState gameState = gameService.removeRoom( roomId );
+                relayedPlayers.remove( roomId );
+                if ( gameState != null ) {
+                    link.send( newOwner, new ClusterFrame( FrameType.MIGRATE, roomId, null, GameStateCodec.encode( gameState ) ) );
+                    log.info( "Room {} handed over to node {}", roomId, newOwner.getNodeId( ) );
+                }
+            }
+        }
+        for ( Player player : gameWebSocket.getLocalPlayers( ) ) {
+            String roomId = player.getRoomId( );
+            if ( newRing.ownerOf( roomId ) != null && !isOwnedBy( newRing, roomId, nodeId )
+                    && !Objects.equals( ownerId( oldRing, roomId ), ownerId( newRing, roomId ) ) ) {
+                link.send( newRing.ownerOf( roomId ), new ClusterFrame( FrameType.JOIN, roomId, player.getId( ), new byte[]{ JOIN_REATTACH, 0 } ) );
+            }
+        }
+        for ( String roomId : spectatorService.getWatchedRooms( ) ) {
+            if ( newRing.ownerOf( roomId ) != null && !isOwnedBy( newRing, roomId, nodeId )
+                    && !Objects.equals( ownerId( oldRing, roomId ), ownerId( newRing, roomId ) ) ) {
+                link.send( newRing.ownerOf( roomId ), new ClusterFrame( FrameType.WATCH, roomId, null, new byte[]{ 0, 0 } ) );
+            }
+        }
+    }
+
+    /**
+     * Sends a frame to the owner of the frame's room.
+     *
+     * @param frame the frame to send
+     */
+    private void sendToOwner( ClusterFrame frame ) {
+        ClusterMember owner = ring.ownerOf( frame.getRoomId( ) );
+        if ( owner != null ) {
+            link.send( owner, frame );
+        }
+    }
+
+    /**
+     * Sends a frame to the node with the given ID, if it is known.
+     *
+     * @param targetNodeId the ID of the node
+     * @param frame        the frame to send
+     */
+    private void sendTo( String targetNodeId, ClusterFrame frame ) {
+        ClusterMember member = knownMembers.get( targetNodeId );
+        if ( member != null ) {
+            link.send( member, frame );
+            return;
+        }
+        log.warn( "Dropping {} frame for unknown node {}", frame.getType( ), targetNodeId );
+    }
+
+    /**
+     * Fails membership changes while cluster mode is disabled.
+     */
+    private void requireEnabled( ) {
+        if ( !enabled ) {
+            throw new IllegalStateException( "Cluster mode is disabled" );
+        }
+    }
+
+    /**
+     * Returns whether the given node owns the room on the given ring.
+     */
+    private static boolean isOwnedBy( ConsistentHashRing ring, String roomId, String nodeId ) {
+        return nodeId.equals( ownerId( ring, roomId ) );
+    }
+
+    /**
+     * Encodes a room state for a {@code ROOM_STATE} frame: a narrowing flag followed by the snapshot.
+     */
+    private static byte[] encodeRoomState( RoomSnapshot snapshot, boolean narrowed ) {
+        byte[] encoded = snapshot.encode( );
+        byte[] payload = new byte[encoded.length + 1];
+        payload[0] = ( byte ) ( narrowed ? 1 : 0 );
+        System.arraycopy( encoded, 0, payload, 1, encoded.length );
+        return payload;
+    }
+
+    /**
+     * Returns the ID of the node owning the room on the given ring, or {@code null} if the ring is empty.
+     */
+    private static String ownerId( ConsistentHashRing ring, String roomId ) {
+        ClusterMember owner = ring.ownerOf( roomId );
+        return owner != null ? owner.getNodeId( ) : null;
+    }
+
+    /**
+     * Encodes a membership list as comma-separated {@code nodeId@host:port} entries.
+     */
+    private static byte[] encodeMembers( List< ClusterMember > members ) {
+        return String.join( ",", members.stream( ).map( ClusterMember::toString ).toList( ) ).getBytes( StandardCharsets.UTF_8 );
+    }
+
+    /**
+     * Decodes a membership list produced by {@link #encodeMembers(List)}.
+     */
+    private static List< ClusterMember > decodeMembers( byte[] payload ) {
+        List< ClusterMember > members = new ArrayList<>( );
+        for ( String spec : new String( payload, StandardCharsets.UTF_8 ).split( "," ) ) {
+            if ( !spec.isBlank( ) ) {
+                members.add( ClusterMember.parse( spec ) );
+            }
+        }
+        return members;
+    }
+}
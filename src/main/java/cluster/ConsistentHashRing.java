@@ -0,0 +1,77 @@
+package cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring mapping room IDs to the cluster member that owns them.
+ * Every member is placed on the ring several times (virtual nodes) to spread rooms evenly,
+ * so adding or draining a node only moves the rooms adjacent to its ring positions.
+ */
+public class ConsistentHashRing {
+    private final TreeMap< Long, ClusterMember > ring = new TreeMap<>( );
+    private final List< ClusterMember > members;
+
+    /**
+     * Builds a ring for the given members.
+     *
+     * @param members      the members to place on the ring
+     * @param virtualNodes how many ring positions each member occupies
+     */
+    public ConsistentHashRing( Collection< ClusterMember > members, int virtualNodes ) {
+        this.members = List.copyOf( members );
+        for ( ClusterMember member : this.members ) {
+            for ( int i = 0; i < virtualNodes; i++ ) {
+                ring.put( hash( member.getNodeId( ) + "#" + i ), member );
+            }
+        }
+    }
+
+    /**
+     * Returns the member owning the given room, or {@code null} if the ring is empty.
+     *
+     * @param roomId the ID of the room
+     * @return the owning member
+     */
+    public ClusterMember ownerOf( String roomId ) {
+        if ( ring.isEmpty( ) ) {
+            return null;
+        }
+        Map.Entry< Long, ClusterMember > entry = ring.ceilingEntry( hash( roomId ) );
+        return entry != null ? entry.getValue( ) : ring.firstEntry( ).getValue( );
+    }
+
+    /**
+     * Returns the members placed on the ring.
+     *
+     * @return an unmodifiable list of members
+     */
+    public List< ClusterMember > getMembers( ) {
+        return Collections.unmodifiableList( members );
+    }
+
+    /**
+     * Hashes a key to a ring position using the first eight bytes of its MD5 digest.
+     *
+     * @param key the key to hash
+     * @return the ring position
+     */
+    private static long hash( String key ) {
+        try {
+            byte[] digest = MessageDigest.getInstance( "MD5" ).digest( key.getBytes( StandardCharsets.UTF_8 ) );
+            long h = 0;
+            for ( int i = 0; i < 8; i++ ) {
+                h = ( h << 8 ) | ( digest[i] & 0xFF );
+            }
+            return h;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException( "MD5 not available", e );
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package cluster;
+
+/**
+ * Types of frames exchanged over the internal cluster link.
+ */
+public enum FrameType {
+    /** Handshake frames opening every connection: challenges and HMAC proofs of the shared cluster secret, with node IDs. */
+    HELLO( 1 ),
+    /** A relayed player joins (or re-attaches to) a room on its owning node; the payload holds flags and an attempt count. */
+    JOIN( 2 ),
+    /** A relayed player moves; the payload holds the direction ordinal. */
+    MOVE( 3 ),
+    /** A relayed player leaves its room. */
+    LEAVE( 4 ),
+    /** Encoded game state of a room, fanned out by the receiver to its relayed sessions. */
+    ROOM_STATE( 5 ),
+    /** A message addressed to a single relayed player. */
+    PLAYER_MESSAGE( 6 ),
+    /** A whole room handed over to its new owner after a membership change. */
+    MIGRATE( 7 ),
+    /** The full membership list, propagated after a node is added or drained. */
+    MEMBERSHIP( 8 ),
+    /** The sender has spectators for a room and wants its states forwarded; the payload holds an attempt count. */
+    WATCH( 9 ),
+    /** The sender no longer has spectators for a room. */
+    UNWATCH( 10 ),
+    /** A JOIN or WATCH reached a node that does not own the room; the payload is the rejected frame's type and payload. */
+    NOT_OWNER( 11 ),
+    /** The owner is overloaded and refuses a new relayed player; the sender closes the player's connection. */
+    JOIN_REFUSED( 12 );
+
+    private final byte code;
+
+    FrameType( int code ) {
+        this.code = ( byte ) code;
+    }
+
+    /**
+     * Returns the wire code of this frame type.
+     *
+     * @return the wire code
+     */
+    public byte code( ) {
+        return code;
+    }
+
+    /**
+     * Resolves a frame type from its wire code.
+     *
+     * @param code the wire code
+     * @return the frame type
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public static FrameType fromCode( byte code ) {
+        for ( FrameType type : values( ) ) {
+            if ( type.code == code ) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException( "Unknown cluster frame type: " + code );
+    }
+}
@@ -0,0 +1,95 @@
+package cluster;
+
+import models.Direction;
+import models.Food;
+import models.GameState;
+import models.Pointer;
+import models.Snake;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of a {@link GameState}, used to hand a room over to another node.
+ */
+public final class GameStateCodec {
+
+    private GameStateCodec( ) {
+    }
+
+    /**
+     * Encodes the given game state.
+     *
+     * @param gameState the game state to encode
+     * @return the encoded bytes
+     */
+    public static byte[] encode( GameState gameState ) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream( );
+        try ( DataOutputStream out = new DataOutputStream( bytes ) ) {
+            out.writeInt( gameState.getGridWidth( ) );
+            out.writeInt( gameState.getGridHeight( ) );
+            out.writeInt( gameState.getFood( ).getPosition( ).getX( ) );
+            out.writeInt( gameState.getFood( ).getPosition( ).getY( ) );
+            Map< String, Snake > snakes = Map.copyOf( gameState.getSnakes( ) );
+            out.writeInt( snakes.size( ) );
+            for ( Map.Entry< String, Snake > entry : snakes.entrySet( ) ) {
+                Snake snake = entry.getValue( );
+                LinkedList< Pointer > body = new LinkedList<>( snake.getBody( ) );
+                out.writeUTF( entry.getKey( ) );
+                out.writeByte( snake.getDirection( ).ordinal( ) );
+                out.writeBoolean( snake.isAlive( ) );
+                out.writeInt( body.size( ) );
+                for ( Pointer p : body ) {
+                    out.writeInt( p.getX( ) );
+                    out.writeInt( p.getY( ) );
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException( e );
+        }
+        return bytes.toByteArray( );
+    }
+
+    /**
+     * Decodes the snakes and food of an encoded game state into the given target state.
+     * Snakes already present in the target are replaced by the decoded ones.
+     *
+     * @param encoded the encoded bytes
+     * @param target  the game state to merge into
+     */
+    public static void decodeInto( byte[] encoded, GameState target ) {
+        try ( DataInputStream in = new DataInputStream( new ByteArrayInputStream( encoded ) ) ) {
+            int gridWidth = in.readInt( );
+            int gridHeight = in.readInt( );
+            Pointer foodPosition = new Pointer( in.readInt( ), in.readInt( ) );
+            int snakeCount = in.readInt( );
+            for ( int i = 0; i < snakeCount; i++ ) {
+                String playerId = in.readUTF( );
+                Direction direction = Direction.values( )[in.readByte( )];
+                boolean alive = in.readBoolean( );
+                int length = in.readInt( );
+                LinkedList< Pointer > body = new LinkedList<>( );
+                for ( int j = 0; j < length; j++ ) {
+                    body.add( new Pointer( in.readInt( ), in.readInt( ) ) );
+                }
+                Snake snake = new Snake( body.getFirst( ) );
+                snake.setBody( body );
+                snake.setDirection( direction );
+                snake.setAlive( alive );
+                target.getSnakes( ).put( playerId, snake );
+            }
+            target.setGridWidth( gridWidth );
+            target.setGridHeight( gridHeight );
+            Food food = target.getFood( );
+            food.setPosition( foodPosition );
+        } catch (IOException e) {
+            throw new UncheckedIOException( e );
+        }
+    }
+}
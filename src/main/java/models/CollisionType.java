@@ -0,0 +1,13 @@
+package models;
+
+/**
+ * Ways a snake can die, in the order {@link GameRules} checks them.
+ */
+public enum CollisionType {
+    /** The snake's head left the grid. */
+    WALL,
+    /** The snake's head ran into its own body. */
+    SELF,
+    /** The snake's head ran into another snake. */
+    OTHER_SNAKE
+}
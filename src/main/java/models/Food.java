@@ -24,7 +24,7 @@ public class Food {
      */
     public Food(int gridWidth, int gridHeight) {
         this.position = generateRandomPosition(gridWidth, gridHeight);
-        log.info("Food generated at position: {}", this.position);
+        log.debug("Food generated at position: {}", this.position);
     }
 
     /**
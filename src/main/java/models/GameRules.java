@@ -0,0 +1,87 @@
+package models;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * The rules of a single move, shared by the live game and the headless simulation.
+ * A snake moves its head one cell in its direction and drops its tail. It then dies if its head left the grid, ran
+ * into its own body or ran into another snake, and a dead snake is removed from the game. Whether or not the snake
+ * died, a head on the food grows the snake by one segment and places new food at a random cell.
+ * The rules only change the game state; reporting the outcome to players is left to the caller.
+ */
+public final class GameRules {
+
+    private GameRules( ) {
+    }
+
+    /**
+     * Moves a living snake one cell in its current direction and applies the collision and food rules.
+     *
+     * @param gameState the game state the snake plays in
+     * @param playerId  the ID of the player owning the snake
+     * @param snake     the snake to move
+     * @param random    the random source used to place new food
+     * @return the outcome of the move
+     */
+    public static MoveOutcome move( GameState gameState, String playerId, Snake snake, RandomGenerator random ) {
+        snake.move( );
+        CollisionType collision = collisionOf( gameState, playerId, snake );
+        if ( collision != null ) {
+            snake.setAlive( false );
+            gameState.removeSnake( playerId );
+        }
+        boolean ateFood = snake.getHead( ).equals( gameState.getFood( ).getPosition( ) );
+        if ( ateFood ) {
+            snake.grow( );
+            gameState.getFood( ).setPosition( new Pointer( random.nextInt( gameState.getGridWidth( ) ), random.nextInt( gameState.getGridHeight( ) ) ) );
+        }
+        return new MoveOutcome( collision, ateFood );
+    }
+
+    /**
+     * Returns the cell next to a head in the given direction; the grid's y axis points down.
+     *
+     * @param head      the current head position
+     * @param direction the direction to move in
+     * @return the new head position
+     */
+    public static Pointer nextHead( Pointer head, Direction direction ) {
+        return switch (direction) {
+            case UP -> new Pointer( head.getX( ), head.getY( ) - 1 );
+            case DOWN -> new Pointer( head.getX( ), head.getY( ) + 1 );
+            case LEFT -> new Pointer( head.getX( ) - 1, head.getY( ) );
+            case RIGHT -> new Pointer( head.getX( ) + 1, head.getY( ) );
+        };
+    }
+
+    /**
+     * Returns how the snake's head collides after a move, checking the wall, its own body and the other snakes in
+     * that order.
+     *
+     * @param gameState the game state the snake plays in
+     * @param playerId  the ID of the player owning the snake
+     * @param snake     the snake to check
+     * @return the collision, or {@code null} if the head is on a free cell
+     */
+    public static CollisionType collisionOf( GameState gameState, String playerId, Snake snake ) {
+        Pointer head = snake.getHead( );
+        if ( head.getX( ) < 0 || head.getX( ) >= gameState.getGridWidth( ) || head.getY( ) < 0 || head.getY( ) >= gameState.getGridHeight( ) ) {
+            return CollisionType.WALL;
+        }
+        Iterator< Pointer > body = snake.getBody( ).iterator( );
+        body.next( );  // Skip the head itself
+        while ( body.hasNext( ) ) {
+            if ( head.equals( body.next( ) ) ) {
+                return CollisionType.SELF;
+            }
+        }
+        for ( Map.Entry< String, Snake > entry : gameState.getSnakes( ).entrySet( ) ) {
+            if ( !entry.getKey( ).equals( playerId ) && entry.getValue( ).getBody( ).contains( head ) ) {
+                return CollisionType.OTHER_SNAKE;
+            }
+        }
+        return null;
+    }
+}
@@ -31,7 +31,7 @@ public class GameState {
         this.gridWidth = gridWidth;
         this.gridHeight = gridHeight;
         generateNewFood( );  // Generate initial food
-        log.info( "GameState initialized with grid size: {}x{}", gridWidth, gridHeight );
+        log.debug( "GameState initialized with grid size: {}x{}", gridWidth, gridHeight );
     }
 
     /**
@@ -42,7 +42,7 @@ public class GameState {
      */
     public void addSnake( String playerId, Snake snake ) {
         snakes.put( playerId, snake );
-        log.info( "Snake added for player: {}", playerId );
+        log.debug( "Snake added for player: {}", playerId );
     }
 
     /**
@@ -52,7 +52,7 @@ public class GameState {
      */
     public void removeSnake( String playerId ) {
         snakes.remove( playerId );
-        log.info( "Snake removed for player: {}", playerId );
+        log.debug( "Snake removed for player: {}", playerId );
     }
 
     /**
@@ -60,6 +60,6 @@ public class GameState {
      */
     public void generateNewFood( ) {
         this.food = new Food( gridWidth, gridHeight );
-        log.info( "Generated new food at position: {}", food.getPosition( ) );
+        log.debug( "Generated new food at position: {}", food.getPosition( ) );
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What happened to a snake during one move, as decided by {@link GameRules}.
+ */
+@Getter
+@AllArgsConstructor
+public class MoveOutcome {
+    /** How the snake died on this move, or {@code null} if it survived. */
+    private final CollisionType collision;
+    /** Whether the snake's head reached the food on this move. */
+    private final boolean ateFood;
+}
@@ -5,7 +5,7 @@ import lombok.Setter;
 
 /**
  * Represents a player in the game.
- * Each player controls a snake.
+ * Each player controls a snake inside a single room.
  */
 @Getter
 @Setter
@@ -13,6 +13,7 @@ public class Player {
     private String id;
     private String name;
     private Snake snake;
+    private String roomId;
 
     /**
      * Constructs a player with the given ID, name, and snake.
@@ -26,4 +27,17 @@ public class Player {
         this.name = name;
         this.snake = snake;
     }
+
+    /**
+     * Constructs a player with the given ID, name, and snake, placed in the given room.
+     *
+     * @param id     the unique ID for the player
+     * @param name   the name of the player
+     * @param snake  the snake controlled by the player
+     * @param roomId the ID of the room the player is playing in
+     */
+    public Player( String id, String name, Snake snake, String roomId ) {
+        this( id, name, snake );
+        this.roomId = roomId;
+    }
 }
\ No newline at end of file
@@ -28,7 +28,7 @@ public class Snake {
         body = new LinkedList<>( );
         body.add( initialPosition );
         this.direction = Direction.RIGHT;
-        log.info( "Created a new snake at position: {}", initialPosition );
+        log.debug( "Created a new snake at position: {}", initialPosition );
     }
 
     /**
@@ -46,20 +46,14 @@ public class Snake {
      */
     public void move( ) {
         if ( !alive ) {
-            log.info( "Snake is dead. Cannot move." );
+            log.debug( "Snake is dead. Cannot move." );
             return;  // Snake cannot move if it is dead
         }
 
-        Pointer head = body.getFirst( );
-        Pointer newHead = switch (direction) {
-            case UP -> new Pointer( head.getX( ), head.getY( ) - 1 );
-            case DOWN -> new Pointer( head.getX( ), head.getY( ) + 1 );
-            case LEFT -> new Pointer( head.getX( ) - 1, head.getY( ) );
-            case RIGHT -> new Pointer( head.getX( ) + 1, head.getY( ) );
-        };
+        Pointer newHead = GameRules.nextHead( body.getFirst( ), direction );
         body.addFirst( newHead );
         body.removeLast( );
-        log.info( "Snake moved to: {}", newHead );
+        log.debug( "Snake moved to: {}", newHead );
     }
 
     /**
@@ -67,6 +61,6 @@ public class Snake {
      */
     public void grow( ) {
         body.addLast( body.getLast( ) );
-        log.info( "Snake grew. New length: {}", body.size( ) );
+        log.debug( "Snake grew. New length: {}", body.size( ) );
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package overload;
+
+/**
+ * Steps of load shedding applied when game ticks exceed their time budget.
+ * Levels are cumulative: each level also applies every measure of the levels below it.
+ */
+public enum DegradationLevel {
+    /** Everything runs at full quality. */
+    NORMAL,
+    /** Informational logging of the game, WebSocket and cluster code is suppressed. */
+    QUIET_LOGGING,
+    /** Room states are broadcast to players at a reduced rate. */
+    REDUCED_BROADCAST,
+    /** Players only receive the snakes near their own snake. */
+    NARROW_INTEREST,
+    /** New players are refused from rooms hosted on this node. */
+    REFUSE_JOINS;
+
+    /**
+     * Returns whether this level applies the measures of the given level.
+     *
+     * @param level the level to compare with
+     * @return whether this level is at least the given level
+     */
+    public boolean atLeast( DegradationLevel level ) {
+        return ordinal( ) >= level.ordinal( );
+    }
+}
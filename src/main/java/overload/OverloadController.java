@@ -0,0 +1,252 @@
+package overload;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Measures game tick time against its budget and sheds load in steps when the server falls behind.
+ * A tick is the handling of one player move, including the broadcast it triggers. At the end of every
+ * evaluation window the average tick time is compared with the budget: above the budget the
+ * {@link DegradationLevel} is raised by one step, below a fraction of the budget it is lowered by one
+ * step, so the server recovers automatically once headroom returns.
+ * The current level is exposed as the {@code snake.overload.level} gauge.
+ */
+@ApplicationScoped
+@Slf4j
+public class OverloadController {
+    /**
+     * Log categories whose informational output is suppressed from {@link DegradationLevel#QUIET_LOGGING} on.
+     */
+    private static final List< String > NON_CRITICAL_LOG_CATEGORIES = List.of( "models", "services", "websocket", "cluster" );
+
+    @Getter
+    @ConfigProperty( name = "snake.overload.tick-budget-ms", defaultValue = "5" )
+    double tickBudgetMillis;
+
+    @ConfigProperty( name = "snake.overload.recovery-ratio", defaultValue = "0.6" )
+    double recoveryRatio;
+
+    @ConfigProperty( name = "snake.overload.window-ms", defaultValue = "1000" )
+    long windowMillis;
+
+    @Getter
+    @ConfigProperty( name = "snake.overload.reduced-broadcast-interval-ms", defaultValue = "200" )
+    long reducedBroadcastIntervalMillis;
+
+    @Getter
+    @ConfigProperty( name = "snake.overload.interest-radius", defaultValue = "10" )
+    int interestRadius;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Getter
+    private volatile DegradationLevel level = DegradationLevel.NORMAL;
+
+    /**
+     * Average tick time of the last completed window, in milliseconds.
+     */
+    @Getter
+    private volatile double lastAverageTickMillis;
+
+    /**
+     * Extra time added to every measured tick, used to simulate overload.
+     */
+    @Getter
+    private volatile long syntheticTickNanos;
+
+    private final LongAdder tickCount = new LongAdder( );
+    private final LongAdder tickNanos = new LongAdder( );
+    private final Map< String, Long > lastBroadcasts = new ConcurrentHashMap<>( );
+    private final Map< String, Runnable > pendingBroadcasts = new ConcurrentHashMap<>( );
+    private final Map< String, Level > savedLogLevels = new HashMap<>( );
+    private final List< Logger > quietedLoggers = NON_CRITICAL_LOG_CATEGORIES.stream( ).map( Logger::getLogger ).toList( );
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Registers the degradation gauge and starts the evaluation timer.
+     *
+     * @param event the startup event
+     */
+    void onStart( @Observes StartupEvent event ) {
+        Gauge.builder( "snake.overload.level", this, controller -> controller.level.ordinal( ) )
+                .description( "Current load shedding level, 0 = normal" )
+                .strongReference( true )
+                .register( meterRegistry );
+        Gauge.builder( "snake.overload.tick.average", this, OverloadController::getLastAverageTickMillis )
+                .description( "Average tick time of the last evaluation window in milliseconds" )
+                .baseUnit( "milliseconds" )
+                .strongReference( true )
+                .register( meterRegistry );
+        scheduler = Executors.newSingleThreadScheduledExecutor( runnable -> {
+            Thread thread = new Thread( runnable, "overload-controller" );
+            thread.setDaemon( true );
+            return thread;
+        } );
+        scheduler.scheduleAtFixedRate( this::evaluate, windowMillis, windowMillis, TimeUnit.MILLISECONDS );
+    }
+
+    /**
+     * Stops the evaluation timer.
+     *
+     * @param event the shutdown event
+     */
+    void onStop( @Observes ShutdownEvent event ) {
+        if ( scheduler != null ) {
+            scheduler.shutdownNow( );
+        }
+    }
+
+    /**
+     * Records the duration of one tick.
+     *
+     * @param nanos the tick duration in nanoseconds
+     */
+    public void recordTick( long nanos ) {
+        tickCount.increment( );
+        tickNanos.add( nanos + syntheticTickNanos );
+    }
+
+    /**
+     * Sets the synthetic time added to every measured tick. Zero disables the synthetic overload.
+     *
+     * @param millis the synthetic tick time in milliseconds
+     */
+    public void setSyntheticTickMillis( long millis ) {
+        if ( millis < 0 ) {
+            throw new IllegalArgumentException( "Synthetic tick time must not be negative" );
+        }
+        syntheticTickNanos = TimeUnit.MILLISECONDS.toNanos( millis );
+        log.warn( "Synthetic tick time set to {} ms", millis );
+    }
+
+    /**
+     * Closes the current window and moves the degradation level one step up or down if needed.
+     * Windows without ticks count as headroom, unless a synthetic tick time is set.
+     */
+    public synchronized void evaluate( ) {
+        long count = tickCount.sumThenReset( );
+        long nanos = tickNanos.sumThenReset( );
+        double average = ( count == 0 ? syntheticTickNanos : nanos / ( double ) count ) / 1_000_000;
+        lastAverageTickMillis = average;
+
+        DegradationLevel[] levels = DegradationLevel.values( );
+        if ( average > tickBudgetMillis && level.ordinal( ) < levels.length - 1 ) {
+            changeLevel( levels[level.ordinal( ) + 1], average );
+        } else if ( average < tickBudgetMillis * recoveryRatio && level.ordinal( ) > 0 ) {
+            changeLevel( levels[level.ordinal( ) - 1], average );
+        }
+    }
+
+    /**
+     * Returns whether a room state may be broadcast to players now.
+     * From {@link DegradationLevel#REDUCED_BROADCAST} on, each room is broadcast at most once per reduced interval.
+     * A skipped broadcast is not lost: the last skipped one of each interval is flushed when the interval expires,
+     * so players always end up with the latest state.
+     *
+     * @param roomId   the room's ID
+     * @param trailing sends the room's latest state to its players, run if this broadcast is skipped
+     * @return whether the broadcast should be sent now
+     */
+    public boolean allowBroadcast( String roomId, Runnable trailing ) {
+        if ( !level.atLeast( DegradationLevel.REDUCED_BROADCAST ) ) {
+            return true;
+        }
+        long now = System.currentTimeMillis( );
+        long[] wait = new long[1];
+        lastBroadcasts.compute( roomId, ( id, last ) -> {
+            wait[0] = last == null ? 0 : reducedBroadcastIntervalMillis - ( now - last );
+            return wait[0] <= 0 ? now : last;
+        } );
+        if ( wait[0] <= 0 ) {
+            pendingBroadcasts.remove( roomId );
+            return true;
+        }
+        if ( pendingBroadcasts.put( roomId, trailing ) == null ) {
+            scheduler.schedule( ( ) -> flushBroadcast( roomId ), wait[0], TimeUnit.MILLISECONDS );
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether players only receive the snakes near them.
+     *
+     * @return whether interest areas are narrowed
+     */
+    public boolean isInterestNarrowed( ) {
+        return level.atLeast( DegradationLevel.NARROW_INTEREST );
+    }
+
+    /**
+     * Returns whether new players are refused from rooms hosted on this node.
+     *
+     * @return whether joins are refused
+     */
+    public boolean isRefusingJoins( ) {
+        return level.atLeast( DegradationLevel.REFUSE_JOINS );
+    }
+
+    /**
+     * Sends the last broadcast of a room skipped during the current interval, if no regular broadcast was sent since.
+     *
+     * @param roomId the room's ID
+     */
+    private void flushBroadcast( String roomId ) {
+        Runnable trailing = pendingBroadcasts.remove( roomId );
+        if ( trailing == null ) {
+            return;
+        }
+        lastBroadcasts.put( roomId, System.currentTimeMillis( ) );
+        try {
+            trailing.run( );
+        } catch (RuntimeException e) {
+            log.error( "Error flushing broadcast of room {}: {}", roomId, e.getMessage( ) );
+        }
+    }
+
+    /**
+     * Switches to a new level and applies or lifts the logging measure.
+     *
+     * @param newLevel       the new level
+     * @param averageMillis the average tick time that caused the change
+     */
+    private void changeLevel( DegradationLevel newLevel, double averageMillis ) {
+        DegradationLevel oldLevel = level;
+        boolean quiet = newLevel.atLeast( DegradationLevel.QUIET_LOGGING );
+        if ( quiet && !oldLevel.atLeast( DegradationLevel.QUIET_LOGGING ) ) {
+            for ( Logger logger : quietedLoggers ) {
+                savedLogLevels.put( logger.getName( ), logger.getLevel( ) );
+                logger.setLevel( Level.WARNING );
+            }
+        } else if ( !quiet && oldLevel.atLeast( DegradationLevel.QUIET_LOGGING ) ) {
+            for ( Logger logger : quietedLoggers ) {
+                logger.setLevel( savedLogLevels.remove( logger.getName( ) ) );
+            }
+        }
+        if ( !newLevel.atLeast( DegradationLevel.REDUCED_BROADCAST ) ) {
+            lastBroadcasts.clear( );
+        }
+        level = newLevel;
+        log.warn( "Overload level changed from {} to {} (average tick {} ms, budget {} ms)",
+                oldLevel, newLevel, String.format( "%.2f", averageMillis ), tickBudgetMillis );
+    }
+}
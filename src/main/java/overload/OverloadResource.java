@@ -0,0 +1,71 @@
+package overload;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST endpoint for inspecting the overload controller and simulating overload.
+ * Simulating overload sheds load from real players, so it is only available when explicitly enabled.
+ */
+@Path( "/overload" )
+@Produces( MediaType.APPLICATION_JSON )
+public class OverloadResource {
+
+    @Inject
+    OverloadController overloadController;
+
+    /**
+     * Whether the synthetic tick cost may be set through this endpoint. Off by default and in production.
+     */
+    @ConfigProperty( name = "snake.overload.synthetic-enabled", defaultValue = "false" )
+    boolean syntheticEnabled;
+
+    /**
+     * Returns the current degradation level and the tick measurements behind it.
+     *
+     * @return the overload status
+     */
+    @GET
+    public Map< String, Object > status( ) {
+        Map< String, Object > status = new HashMap<>( );
+        status.put( "level", overloadController.getLevel( ) );
+        status.put( "levelOrdinal", overloadController.getLevel( ).ordinal( ) );
+        status.put( "averageTickMillis", overloadController.getLastAverageTickMillis( ) );
+        status.put( "tickBudgetMillis", overloadController.getTickBudgetMillis( ) );
+        status.put( "syntheticTickMillis", TimeUnit.NANOSECONDS.toMillis( overloadController.getSyntheticTickNanos( ) ) );
+        return status;
+    }
+
+    /**
+     * Adds a synthetic cost to every measured tick, e.g. to exercise load shedding and recovery. Zero disables it.
+     *
+     * @param millis the synthetic tick time in milliseconds
+     * @return the updated overload status
+     * @throws NotFoundException if simulating overload is not enabled
+     */
+    @PUT
+    @Path( "/synthetic/{millis}" )
+    public Map< String, Object > setSynthetic( @PathParam( "millis" ) long millis ) {
+        if ( !syntheticEnabled ) {
+            throw new NotFoundException( "Synthetic overload is disabled; set snake.overload.synthetic-enabled=true to use it" );
+        }
+        try {
+            overloadController.setSyntheticTickMillis( millis );
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException( e.getMessage( ) );
+        }
+        return status( );
+    }
+}
@@ -6,27 +6,44 @@ import jakarta.inject.Inject;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import models.*;
+import overload.OverloadController;
 import websocket.GameWebSocket;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 /**
  * Service class that handles the core game logic, such as moving snakes,
  * adding/removing players, detecting collisions, and broadcasting the game state.
+ * Each room has its own independent game state.
  */
 @Getter
 @ApplicationScoped
 @Slf4j
 public class GameService {
-    private final GameState gameState;
+    /**
+     * Room used by clients that do not ask for a specific one.
+     */
+    public static final String DEFAULT_ROOM = "lobby";
+
+    private static final int GRID_SIZE = 40;
+
+    /**
+     * The game state of every room hosted on this node, keyed by room ID.
+     */
+    private final Map< String, GameState > rooms = new ConcurrentHashMap<>( );
 
     @Inject
     GameWebSocket gameWebSocket;
 
+    @Inject
+    OverloadController overloadController;
+
     /**
      * Constructs a GameService with the given WebSocket endpoint for communication.
-     * Initializes the game state with a grid size of 40x40.
+     * Rooms are created lazily with a grid size of 40x40.
      *
      * @param gameWebSocket the WebSocket endpoint for broadcasting game state
      */
@@ -36,120 +53,159 @@ public class GameService {
             throw new IllegalArgumentException( "GameWebSocket must be provided!" );
         }
         this.gameWebSocket = gameWebSocket;
-        this.gameState = new GameState( 40, 40 );
-        // Using ConcurrentHashMap for gameState Snakes to avoid concurrent modification
-        this.gameState.setSnakes( new ConcurrentHashMap<>( ) );
     }
 
     /**
-     * Adds a new player and their snake to the game.
+     * Returns the game state of the given room. Rooms are only created by players joining or by migration,
+     * so looking a room up never recreates one that was discarded or handed over to another node.
+     *
+     * @param roomId the room's ID
+     * @return the game state of the room, or {@code null} if the room is not hosted here
+     */
+    public GameState getGameState( String roomId ) {
+        return rooms.get( roomId );
+    }
+
+    /**
+     * Applies an update to the game state of the given room, creating the room if needed.
+     * The update runs atomically with respect to players joining and leaving the room.
+     *
+     * @param roomId the room's ID
+     * @param update the update to apply
+     */
+    public void updateRoom( String roomId, Consumer< GameState > update ) {
+        rooms.compute( roomId, ( id, gameState ) -> {
+            GameState target = gameState != null ? gameState : createRoom( id );
+            update.accept( target );
+            return target;
+        } );
+    }
+
+    /**
+     * Removes a room and returns its game state, e.g. when the room is handed over to another node.
+     *
+     * @param roomId the room's ID
+     * @return the removed game state, or {@code null} if the room was not hosted here
+     */
+    public GameState removeRoom( String roomId ) {
+        GameState removed = rooms.remove( roomId );
+        if ( removed != null ) {
+            log.info( "Room {} removed", roomId );
+        }
+        return removed;
+    }
+
+    /**
+     * Adds a new player and their snake to the given room.
      *
+     * @param roomId   the room's ID
      * @param playerId the player's ID
      * @param player   the Player object containing the player's details and snake
      */
-    public void addPlayer( String playerId, Player player ) {
+    public void addPlayer( String roomId, String playerId, Player player ) {
         Snake snake = new Snake( new Pointer( 5, 5 ) );  // Start position for snake
         player.setSnake( snake );
-        gameState.addSnake( playerId, snake );
-        log.info( "Player {} joined with a new snake at: {}", playerId, snake.getBody( ).getFirst( ) );
+        player.setRoomId( roomId );
+        updateRoom( roomId, gameState -> gameState.addSnake( playerId, snake ) );
+        log.info( "Player {} joined room {} with a new snake at: {}", playerId, roomId, snake.getBody( ).getFirst( ) );
+    }
+
+    /**
+     * Returns whether the given room currently holds a snake for the player.
+     *
+     * @param roomId   the room's ID
+     * @param playerId the player's ID
+     * @return whether the player has a snake in the room
+     */
+    public boolean hasPlayer( String roomId, String playerId ) {
+        GameState gameState = rooms.get( roomId );
+        return gameState != null && gameState.getSnakes( ).containsKey( playerId );
     }
 
     /**
-     * Removes a player and their snake from the game.
+     * Removes a player and their snake from the given room. Empty rooms are discarded.
+     * Both happen atomically, so a player joining concurrently never lands in a discarded room.
      *
+     * @param roomId   the room's ID
      * @param playerId the player's ID
      */
-    public void removePlayer( String playerId ) {
-        gameState.removeSnake( playerId );
+    public void removePlayer( String roomId, String playerId ) {
+        rooms.computeIfPresent( roomId, ( id, gameState ) -> {
+            gameState.removeSnake( playerId );
+            if ( gameState.getSnakes( ).isEmpty( ) ) {
+                log.info( "Room {} is empty and was discarded", id );
+                return null;
+            }
+            return gameState;
+        } );
+    }
+
+    /**
+     * Creates the game state of a new room with a grid size of 40x40.
+     *
+     * @param roomId the room's ID
+     * @return the new game state
+     */
+    private GameState createRoom( String roomId ) {
+        GameState gameState = new GameState( GRID_SIZE, GRID_SIZE );
+        // Using ConcurrentHashMap for gameState Snakes to avoid concurrent modification
+        gameState.setSnakes( new ConcurrentHashMap<>( ) );
+        log.info( "Room {} created", roomId );
+        return gameState;
     }
 
     /**
-     * Moves the player's snake based on the given direction and checks for collisions.
+     * Moves the player's snake based on the given direction and applies the {@link GameRules}.
+     * The time spent, including the broadcast, is reported to the overload controller as one tick.
      *
+     * @param roomId    the room's ID
      * @param playerId  the player's ID
      * @param direction the direction the player wants to move their snake
      */
-    public void movePlayer( String playerId, String direction ) {
+    public void movePlayer( String roomId, String playerId, String direction ) {
         if ( direction == null ) {
             return;
         }
+        long tickStart = System.nanoTime( );
         try {
-            Snake snake = gameState.getSnakes( ).get( playerId );
+            GameState gameState = rooms.get( roomId );
+            Snake snake = gameState != null ? gameState.getSnakes( ).get( playerId ) : null;
             if ( snake != null && snake.isAlive( ) ) {
                 snake.setDirection( Direction.valueOf( direction.toUpperCase( ) ) );
-                snake.move( );
-                checkCollisions( playerId, snake );
+                MoveOutcome outcome = GameRules.move( gameState, playerId, snake, ThreadLocalRandom.current( ) );
+                reportOutcome( roomId, playerId, outcome );
 
-                gameWebSocket.broadcastGameState( );
+                gameWebSocket.broadcastGameState( roomId );
             }
         } catch (IllegalArgumentException e) {
             log.error( "Invalid direction '{}' for player {}", direction, playerId );
+        } finally {
+            overloadController.recordTick( System.nanoTime( ) - tickStart );
         }
     }
 
     /**
-     * Checks for collisions and notifies the client if a collision or food-eating event occurs.
+     * Notifies the client if a collision or food-eating event occurred during a move.
      *
+     * @param roomId   the room's ID
      * @param playerId the player's ID
-     * @param snake    the snake to check for collisions
+     * @param outcome  the outcome of the move
      */
-    private void checkCollisions( String playerId, Snake snake ) {
-        Pointer head = snake.getHead( );
-        boolean collisionOccurred = false;
-
-        // Check for wall collisions
-        if ( head.getX( ) < 0 || head.getX( ) >= gameState.getGridWidth( ) || head.getY( ) < 0 || head.getY( ) >= gameState.getGridHeight( ) ) {
-            snake.setAlive( false );
-            gameState.removeSnake( playerId );
-            collisionOccurred = true;
-            log.warn( "Player {}'s snake hit the wall and is removed.", playerId );
-        }
-
-        // Check for self-collisions
-        if ( !collisionOccurred ) {
-            for ( int i = 1; i < snake.getBody( ).size( ); i++ ) {
-                Pointer bodyPart = snake.getBody( ).get( i );
-                if ( head.equals( bodyPart ) ) {
-                    snake.setAlive( false );
-                    gameState.removeSnake( playerId );
-                    collisionOccurred = true;
-                    log.warn( "Player {}'s snake collided with itself and is removed.", playerId );
-                    break;  // Exit loop early on collision
-                }
-            }
-        }
-
-        // Check for collisions with other snakes (iterate over a ConcurrentHashMap)
-        if ( !collisionOccurred ) {
-            for ( Map.Entry< String, Snake > entry : gameState.getSnakes( ).entrySet( ) ) {
-                if ( !entry.getKey( ).equals( playerId ) ) {
-                    for ( Pointer segment : entry.getValue( ).getBody( ) ) {
-                        if ( head.equals( segment ) ) {
-                            snake.setAlive( false );
-                            gameState.removeSnake( playerId );
-                            collisionOccurred = true;
-                            log.warn( "Player {}'s snake collided with another snake and is removed.", playerId );
-                            break;
-                        }
-                    }
-                }
-                if ( collisionOccurred ) break;
+    private void reportOutcome( String roomId, String playerId, MoveOutcome outcome ) {
+        if ( outcome.getCollision( ) != null ) {
+            switch ( outcome.getCollision( ) ) {
+                case WALL -> log.warn( "Player {}'s snake hit the wall and is removed.", playerId );
+                case SELF -> log.warn( "Player {}'s snake collided with itself and is removed.", playerId );
+                case OTHER_SNAKE -> log.warn( "Player {}'s snake collided with another snake and is removed.", playerId );
             }
-        }
-
-        // Handle collision event
-        if ( collisionOccurred ) {
             Map< String, Object > collisionResponse = new ConcurrentHashMap<>( );
             collisionResponse.put( "collision", true );
             collisionResponse.put( "playerId", playerId );
-            gameWebSocket.broadcastGameState( );
+            gameWebSocket.broadcastGameState( roomId );
             broadcastMessageToClient( playerId, collisionResponse );
         }
 
-        // Check if snake ate food
-        if ( head.equals( gameState.getFood( ).getPosition( ) ) ) {
-            snake.grow( );
-            gameState.generateNewFood( );
+        if ( outcome.isAteFood( ) ) {
             log.info( "Player {}'s snake ate the food and grew.", playerId );
 
             Map< String, Object > foodEatenResponse = new ConcurrentHashMap<>( );
@@ -167,13 +223,7 @@ public class GameService {
      */
     private void broadcastMessageToClient( String playerId, Map< String, Object > message ) {
         try {
-            gameWebSocket.getSessionByPlayerId( playerId ).ifPresent( session -> {
-                try {
-                    session.getAsyncRemote( ).sendText( new ObjectMapper( ).writeValueAsString( message ) );
-                } catch (Exception e) {
-                    log.error( "Error sending message to player {}: {}", playerId, e.getMessage( ) );
-                }
-            } );
+            gameWebSocket.sendToPlayer( playerId, new ObjectMapper( ).writeValueAsString( message ) );
         } catch (Exception e) {
             log.error( "Error processing message for player {}: {}", playerId, e.getMessage( ) );
         }
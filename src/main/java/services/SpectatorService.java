@@ -0,0 +1,298 @@
+package services;
+
+import cluster.ClusterService;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.websocket.Session;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import websocket.GameWebSocket;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Service that streams room states to spectators.
+ * Spectators never own a snake. Each one is placed in a fan-out tier by its requested frame rate, and every tier
+ * is driven by its own timer, independent of the players' moves. Players only publish the snapshot they already
+ * encoded for their own broadcast; it is turned into a single shared UTF-8 frame per room state, which every
+ * tier and every spectator of the room reuses. Spectators whose previous frame is still in flight skip frames
+ * instead of queueing them, and catch up with the latest state on their tier's next run.
+ */
+@ApplicationScoped
+@Slf4j
+public class SpectatorService {
+
+    /**
+     * Frame rates of the fan-out tiers, in frames per second.
+     */
+    @Getter
+    @ConfigProperty( name = "snake.spectator.tiers", defaultValue = "10,5,2,1" )
+    List< Integer > tierRates;
+
+    @Inject
+    ClusterService clusterService;
+
+    @Inject
+    GameWebSocket gameWebSocket;
+
+    /**
+     * The feed of every room watched by at least one spectator on this node, keyed by room ID.
+     */
+    private final Map< String, RoomFeed > feeds = new ConcurrentHashMap<>( );
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Starts one timer per fan-out tier.
+     *
+     * @param event the startup event
+     */
+    void onStart( @Observes StartupEvent event ) {
+        if ( tierRates.stream( ).anyMatch( rate -> rate <= 0 ) ) {
+            throw new IllegalArgumentException( "Spectator tier rates must be positive but were " + tierRates );
+        }
+        scheduler = Executors.newScheduledThreadPool( tierRates.size( ), runnable -> {
+            Thread thread = new Thread( runnable, "spectator-fanout" );
+            thread.setDaemon( true );
+            return thread;
+        } );
+        for ( int rate : tierRates ) {
+            long periodMillis = Math.max( 1, 1000 / rate );
+            scheduler.scheduleAtFixedRate( ( ) -> fanOut( rate ), periodMillis, periodMillis, TimeUnit.MILLISECONDS );
+        }
+        log.info( "Spectator fan-out started with tiers {} fps", tierRates );
+    }
+
+    /**
+     * Stops the tier timers.
+     *
+     * @param event the shutdown event
+     */
+    void onStop( @Observes ShutdownEvent event ) {
+        if ( scheduler != null ) {
+            scheduler.shutdownNow( );
+        }
+    }
+
+    /**
+     * Returns the tier a requested frame rate is served from: the fastest tier not faster than the request,
+     * or the slowest tier if every tier is faster.
+     *
+     * @param requestedRate the requested frame rate, in frames per second
+     * @return the frame rate of the chosen tier
+     */
+    public int tierFor( int requestedRate ) {
+        int chosen = Integer.MAX_VALUE;
+        int best = 0;
+        for ( int rate : tierRates ) {
+            chosen = Math.min( chosen, rate );
+            if ( rate <= requestedRate && rate > best ) {
+                best = rate;
+            }
+        }
+        return best > 0 ? best : chosen;
+    }
+
+    /**
+     * Subscribes a spectator session to a room and sends it the room's latest state right away, so a spectator
+     * of an idle room does not wait for the next change.
+     *
+     * @param session       the spectator's WebSocket session
+     * @param roomId        the room to watch
+     * @param requestedRate the requested frame rate, in frames per second
+     * @return the frame rate of the tier the spectator was placed in
+     */
+    public int subscribe( Session session, String roomId, int requestedRate ) {
+        int tier = tierFor( requestedRate );
+        Spectator spectator = new Spectator( session );
+        boolean[] created = new boolean[1];
+        RoomFeed subscribed = feeds.compute( roomId, ( id, feed ) -> {
+            if ( feed == null ) {
+                feed = new RoomFeed( );
+                created[0] = true;
+            }
+            feed.tiers.computeIfAbsent( tier, rate -> ConcurrentHashMap.newKeySet( ) ).add( spectator );
+            return feed;
+        } );
+        if ( created[0] ) {
+            // Remote owners answer a watch with the current state
+            clusterService.watch( roomId );
+        }
+        if ( !subscribed.hasState( ) && clusterService.isLocal( roomId ) ) {
+            gameWebSocket.currentSnapshot( roomId ).ifPresent( snapshot -> subscribed.publish( snapshot::toJson ) );
+        }
+        Frame latest = subscribed.latestFrame( );
+        if ( latest != null ) {
+            spectator.offer( latest );
+        }
+        log.info( "Spectator {} watches room {} at {} fps", session.getId( ), roomId, tier );
+        return tier;
+    }
+
+    /**
+     * Unsubscribes a spectator session from a room.
+     *
+     * @param session the spectator's WebSocket session
+     * @param roomId  the watched room
+     */
+    public void unsubscribe( Session session, String roomId ) {
+        boolean[] removed = new boolean[1];
+        feeds.computeIfPresent( roomId, ( id, feed ) -> {
+            feed.tiers.values( ).forEach( spectators -> spectators.removeIf( s -> s.session.equals( session ) ) );
+            feed.tiers.values( ).removeIf( Set::isEmpty );
+            if ( feed.tiers.isEmpty( ) ) {
+                removed[0] = true;
+                return null;
+            }
+            return feed;
+        } );
+        if ( removed[0] ) {
+            clusterService.unwatch( roomId );
+        }
+    }
+
+    /**
+     * Publishes a new state of a room to its spectators. Called on the players' path, so it only records the
+     * state; the JSON and the shared frame are built lazily by the first tier that sends it.
+     *
+     * @param roomId    the room's ID
+     * @param gameState supplies the encoded game state
+     */
+    public void publish( String roomId, Supplier< String > gameState ) {
+        RoomFeed feed = feeds.get( roomId );
+        if ( feed != null ) {
+            feed.publish( gameState );
+        }
+    }
+
+    /**
+     * Returns the rooms watched by spectators connected to this node.
+     *
+     * @return the watched room IDs
+     */
+    public Set< String > getWatchedRooms( ) {
+        return feeds.keySet( );
+    }
+
+    /**
+     * Offers the latest frame of every watched room to the spectators of the given tier. Each spectator that has
+     * not been sent that frame yet gets it, including one that skipped an earlier run because a send was still in
+     * flight.
+     *
+     * @param rate the frame rate of the tier
+     */
+    private void fanOut( int rate ) {
+        try {
+            for ( RoomFeed feed : feeds.values( ) ) {
+                Set< Spectator > spectators = feed.tiers.get( rate );
+                if ( spectators == null || spectators.isEmpty( ) ) {
+                    continue;
+                }
+                Frame frame = feed.latestFrame( );
+                if ( frame == null ) {
+                    continue;
+                }
+                for ( Spectator spectator : spectators ) {
+                    spectator.offer( frame );
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error( "Error fanning out {} fps tier: {}", rate, e.getMessage( ) );
+        }
+    }
+
+    /**
+     * Latest state of a watched room and the spectators of each tier.
+     */
+    static class RoomFeed {
+        final Map< Integer, Set< Spectator > > tiers = new ConcurrentHashMap<>( );
+        private final AtomicLong version = new AtomicLong( );
+        private volatile Supplier< String > latestState;
+        private Frame frame;
+
+        void publish( Supplier< String > gameState ) {
+            latestState = gameState;
+            version.incrementAndGet( );
+        }
+
+        boolean hasState( ) {
+            return latestState != null;
+        }
+
+        /**
+         * Returns the shared frame of the latest state, encoding it once per version, or {@code null} if nothing
+         * was published yet.
+         */
+        synchronized Frame latestFrame( ) {
+            if ( latestState == null ) {
+                return null;
+            }
+            long current = version.get( );
+            if ( frame == null || frame.version != current ) {
+                frame = new Frame( current, ByteBuffer.wrap( latestState.get( ).getBytes( StandardCharsets.UTF_8 ) ).asReadOnlyBuffer( ) );
+            }
+            return frame;
+        }
+    }
+
+    /**
+     * An encoded room state shared by all spectators of the room, with the version of the state it encodes.
+     */
+    static final class Frame {
+        final long version;
+        final ByteBuffer buffer;
+
+        Frame( long version, ByteBuffer buffer ) {
+            this.version = version;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * A spectator session with at most one frame in flight, which remembers the version it was last sent.
+     */
+    static class Spectator {
+        final Session session;
+        private final AtomicBoolean sending = new AtomicBoolean( );
+        private volatile long sentVersion = -1;
+
+        Spectator( Session session ) {
+            this.session = session;
+        }
+
+        /**
+         * Sends the frame unless the spectator already got it or its previous frame is still in flight; a skipped
+         * frame is offered again by the tier's next run.
+         */
+        void offer( Frame frame ) {
+            if ( frame.version <= sentVersion || !sending.compareAndSet( false, true ) ) {
+                return;
+            }
+            if ( frame.version <= sentVersion ) {
+                sending.set( false );
+                return;
+            }
+            sentVersion = frame.version;
+            session.getAsyncRemote( ).sendBinary( frame.buffer.duplicate( ), result -> {
+                sending.set( false );
+                if ( result.getException( ) != null ) {
+                    log.error( "Error sending frame to spectator {}: {}", session.getId( ), result.getException( ).getMessage( ) );
+                }
+            } );
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package simulation;
+
+import models.CollisionType;
+import models.Direction;
+import models.GameRules;
+import models.GameState;
+import models.MoveOutcome;
+import models.Pointer;
+import models.Snake;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+
+/**
+ * A single headless game, played to completion by bot-controlled snakes.
+ * The game is held in a {@link GameState} and every move is applied by {@link GameRules}, exactly as in the live game.
+ * Unlike the live game, snakes start at distinct random cells so they do not collide on the first tick, and they move
+ * in a fixed order within each tick.
+ */
+final class SimulatedGame {
+    private static final Direction[] DIRECTIONS = Direction.values( );
+
+    private final GameState gameState;
+    private final int maxTicks;
+    private final double botRandomness;
+    private final SplittableRandom random;
+
+    /** Player IDs and snakes in the order they move within a tick. */
+    private final String[] playerIds;
+    private final Snake[] snakes;
+    private final int[] survivedTicks;
+    private final int[] foodEaten;
+    private final CollisionType[] deaths;
+    private final Pointer[] candidates = new Pointer[DIRECTIONS.length];
+    private final Direction[] safeMoves = new Direction[DIRECTIONS.length];
+    private int aliveCount;
+
+    /**
+     * Sets up a game with snakes of length one at distinct random cells.
+     *
+     * @param config the simulation configuration
+     * @param random the random source of this game
+     */
+    SimulatedGame( SimulationConfig config, SplittableRandom random ) {
+        this( randomGame( config, random ), config.getMaxTicks( ), config.getBotRandomness( ), random );
+    }
+
+    /**
+     * Sets up a game from a prepared game state. Snakes move in the iteration order of the state's snakes.
+     *
+     * @param gameState     the game state to play
+     * @param maxTicks      the tick limit of the game
+     * @param botRandomness the probability that a bot picks a random safe move
+     * @param random        the random source of this game
+     */
+    SimulatedGame( GameState gameState, int maxTicks, double botRandomness, SplittableRandom random ) {
+        this.gameState = gameState;
+        this.maxTicks = maxTicks;
+        this.botRandomness = botRandomness;
+        this.random = random;
+
+        int count = gameState.getSnakes( ).size( );
+        playerIds = gameState.getSnakes( ).keySet( ).toArray( new String[0] );
+        snakes = gameState.getSnakes( ).values( ).toArray( new Snake[0] );
+        survivedTicks = new int[count];
+        foodEaten = new int[count];
+        deaths = new CollisionType[count];
+        aliveCount = count;
+    }
+
+    /**
+     * Plays the game until every snake is dead or the tick limit is reached, and records the outcome.
+     *
+     * @param stats the accumulator to record the outcome in
+     */
+    void play( SimulationStats stats ) {
+        int tick = 0;
+        while ( aliveCount > 0 && tick < maxTicks ) {
+            tick++;
+            for ( int s = 0; s < snakes.length; s++ ) {
+                if ( snakes[s].isAlive( ) ) {
+                    move( s, chooseDirection( s ) );
+                    if ( snakes[s].isAlive( ) ) {
+                        survivedTicks[s] = tick;
+                    }
+                }
+            }
+        }
+        stats.recordGame( tick, survivedTicks, foodEaten, deaths );
+    }
+
+    /**
+     * Turns a living snake to the given direction, moves it and counts the outcome.
+     *
+     * @param s         the index of the snake
+     * @param direction the direction to move in
+     * @return the outcome of the move
+     */
+    MoveOutcome move( int s, Direction direction ) {
+        snakes[s].setDirection( direction );
+        MoveOutcome outcome = GameRules.move( gameState, playerIds[s], snakes[s], random );
+        if ( outcome.isAteFood( ) ) {
+            foodEaten[s]++;
+        }
+        if ( outcome.getCollision( ) != null ) {
+            deaths[s] = outcome.getCollision( );
+            aliveCount--;
+        }
+        return outcome;
+    }
+
+    /**
+     * Bot policy: among the moves that do not die immediately, usually take the one closest to the food and
+     * occasionally a random one. Reversing is never chosen, as the client forbids it. With no safe move the snake
+     * keeps its direction.
+     *
+     * @param s the index of the snake
+     * @return the chosen direction
+     */
+    private Direction chooseDirection( int s ) {
+        Snake self = snakes[s];
+        Pointer head = self.getHead( );
+        for ( Direction direction : DIRECTIONS ) {
+            Pointer next = GameRules.nextHead( head, direction );
+            boolean reverse = self.getBody( ).size( ) > 1 && next.equals( self.getBody( ).get( 1 ) );
+            boolean inside = next.getX( ) >= 0 && next.getX( ) < gameState.getGridWidth( ) && next.getY( ) >= 0 && next.getY( ) < gameState.getGridHeight( );
+            candidates[direction.ordinal( )] = reverse || !inside ? null : next;
+        }
+        excludeOccupied( self );
+
+        Pointer food = gameState.getFood( ).getPosition( );
+        Direction best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        int safeCount = 0;
+        for ( Direction direction : DIRECTIONS ) {
+            Pointer next = candidates[direction.ordinal( )];
+            if ( next == null ) {
+                continue;
+            }
+            safeMoves[safeCount++] = direction;
+            int distance = Math.abs( food.getX( ) - next.getX( ) ) + Math.abs( food.getY( ) - next.getY( ) );
+            if ( distance < bestDistance ) {
+                bestDistance = distance;
+                best = direction;
+            }
+        }
+        if ( safeCount == 0 ) {
+            return self.getDirection( );
+        }
+        if ( botRandomness > 0 && random.nextDouble( ) < botRandomness ) {
+            return safeMoves[random.nextInt( safeCount )];
+        }
+        return best;
+    }
+
+    /**
+     * Drops the candidate cells occupied by any snake in a single pass over all bodies. The own tail cell is vacated
+     * by the move, unless the tail is doubled after eating.
+     *
+     * @param self the snake about to move
+     */
+    private void excludeOccupied( Snake self ) {
+        Iterator< Pointer > fromTail = self.getBody( ).descendingIterator( );
+        Pointer tail = fromTail.next( );
+        Pointer vacated = fromTail.hasNext( ) && fromTail.next( ).equals( tail ) ? null : tail;
+        for ( Snake snake : gameState.getSnakes( ).values( ) ) {
+            for ( Pointer segment : snake.getBody( ) ) {
+                if ( segment == vacated ) {
+                    continue;
+                }
+                for ( int d = 0; d < candidates.length; d++ ) {
+                    if ( segment.equals( candidates[d] ) ) {
+                        candidates[d] = null;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the initial state of a game: snakes of length one facing random directions at distinct random cells,
+     * and food at a random cell.
+     *
+     * @param config the simulation configuration
+     * @param random the random source of the game
+     * @return the game state
+     */
+    private static GameState randomGame( SimulationConfig config, SplittableRandom random ) {
+        GameState gameState = new GameState( config.getGridWidth( ), config.getGridHeight( ) );
+        gameState.setSnakes( new LinkedHashMap<>( ) );
+        for ( int s = 0; s < config.getSnakesPerGame( ); s++ ) {
+            Pointer cell;
+            do {
+                cell = randomCell( config, random );
+            } while ( isOccupied( gameState, cell ) );
+            Snake snake = new Snake( cell );
+            snake.setDirection( DIRECTIONS[random.nextInt( DIRECTIONS.length )] );
+            gameState.addSnake( Integer.toString( s ), snake );
+        }
+        gameState.getFood( ).setPosition( randomCell( config, random ) );
+        return gameState;
+    }
+
+    /**
+     * Returns a random cell of the grid.
+     */
+    private static Pointer randomCell( SimulationConfig config, SplittableRandom random ) {
+        return new Pointer( random.nextInt( config.getGridWidth( ) ), random.nextInt( config.getGridHeight( ) ) );
+    }
+
+    /**
+     * Returns whether a snake's body covers the cell.
+     */
+    private static boolean isOccupied( GameState gameState, Pointer cell ) {
+        return gameState.getSnakes( ).values( ).stream( ).anyMatch( snake -> snake.getBody( ).contains( cell ) );
+    }
+}
@@ -0,0 +1,61 @@
+package simulation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line entry point of the simulation engine. It only needs the compiled classes and SLF4J, e.g.
+ * {@code mvn compile exec:java -Dexec.mainClass=simulation.SimulationCli -Dexec.args="--games 10000 --ticks 5000 --snakes 4 --seed 42"}.
+ */
+public final class SimulationCli {
+
+    private SimulationCli( ) {
+    }
+
+    /**
+     * Parses {@code --name value} options, runs the batch and prints the aggregate statistics.
+     * Supported options: games, ticks, snakes, width, height, seed, threads, randomness.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main( String[] args ) {
+        Map< String, String > options = new HashMap<>( );
+        for ( int i = 0; i < args.length; i++ ) {
+            if ( !args[i].startsWith( "--" ) || i + 1 >= args.length ) {
+                System.err.println( "Usage: SimulationCli [--games n] [--ticks n] [--snakes n] [--width n] [--height n] "
+                        + "[--seed n] [--threads n] [--randomness p]" );
+                System.exit( 2 );
+            }
+            options.put( args[i].substring( 2 ), args[++i] );
+        }
+
+        SimulationResult result;
+        try {
+            SimulationConfig config = new SimulationConfig(
+                    Integer.parseInt( options.getOrDefault( "games", "1000" ) ),
+                    Integer.parseInt( options.getOrDefault( "ticks", "10000" ) ),
+                    Integer.parseInt( options.getOrDefault( "snakes", "4" ) ),
+                    Integer.parseInt( options.getOrDefault( "width", "40" ) ),
+                    Integer.parseInt( options.getOrDefault( "height", "40" ) ),
+                    Long.parseLong( options.getOrDefault( "seed", "42" ) ),
+                    Integer.parseInt( options.getOrDefault( "threads", String.valueOf( Runtime.getRuntime( ).availableProcessors( ) ) ) ),
+                    Double.parseDouble( options.getOrDefault( "randomness", "0.1" ) )
+            );
+            result = new SimulationEngine( ).run( config );
+        } catch (IllegalArgumentException e) {
+            System.err.println( "Invalid simulation options: " + e.getMessage( ) );
+            System.exit( 2 );
+            return;
+        }
+
+        System.out.printf( "Games: %d x %d snakes on %d threads in %d ms%n",
+                result.getGames( ), result.getSnakesPerGame( ), result.getThreads( ), result.getElapsedMillis( ) );
+        System.out.printf( "Ticks: %d (%.0f/s), snake moves: %d (%.0f/s)%n",
+                result.getTicks( ), result.getTicksPerSecond( ), result.getSnakeMoves( ), result.getSnakeMovesPerSecond( ) );
+        System.out.printf( "Survival ticks: min %d, mean %.1f, median %d, p90 %d, max %d%n",
+                result.getMinSurvivalTicks( ), result.getMeanSurvivalTicks( ), result.getMedianSurvivalTicks( ),
+                result.getP90SurvivalTicks( ), result.getMaxSurvivalTicks( ) );
+        System.out.printf( "Food eaten: %d (%.4f per move)%n", result.getFoodEaten( ), result.getFoodRate( ) );
+        System.out.printf( "Deaths: %s, survivors: %d%n", result.getCollisions( ), result.getSurvivors( ) );
+    }
+}
@@ -0,0 +1,72 @@
+package simulation;
+
+import lombok.Getter;
+
+/**
+ * Parameters of a batch of simulated games.
+ */
+@Getter
+public class SimulationConfig {
+    /** Upper bound on games per batch, to keep a single request from monopolizing the server. */
+    public static final int MAX_GAMES = 1_000_000;
+    /** Upper bound on ticks per game. */
+    public static final int MAX_TICKS = 1_000_000;
+    /** Upper bound on snakes per game; every move is checked against the bodies of all snakes in its game. */
+    public static final int MAX_SNAKES = 256;
+    /** Upper bound on snakes per game times grid cells, which bounds the per-game state. */
+    public static final long MAX_SNAKE_CELLS = 50_000_000L;
+    /** Upper bound on snake moves per batch (games x ticks x snakes), which bounds the run time of a batch. */
+    public static final long MAX_SNAKE_MOVES = 2_000_000_000L;
+
+    private final int games;
+    private final int maxTicks;
+    private final int snakesPerGame;
+    private final int gridWidth;
+    private final int gridHeight;
+    private final long seed;
+    private final int threads;
+    private final double botRandomness;
+
+    /**
+     * Constructs and validates a simulation configuration.
+     *
+     * @param games         the number of independent games to run
+     * @param maxTicks      the tick limit of each game; a game also ends when all its snakes are dead
+     * @param snakesPerGame the number of bot-controlled snakes in each game
+     * @param gridWidth     the width of the game grid
+     * @param gridHeight    the height of the game grid
+     * @param seed          the base seed; game {@code i} is seeded from {@code seed} and {@code i}, so results are reproducible
+     * @param threads       the number of worker threads
+     * @param botRandomness the probability that a bot picks a random safe move instead of heading for the food
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public SimulationConfig( int games, int maxTicks, int snakesPerGame, int gridWidth, int gridHeight, long seed,
+                             int threads, double botRandomness ) {
+        require( games > 0 && games <= MAX_GAMES, "games must be between 1 and " + MAX_GAMES );
+        require( maxTicks > 0 && maxTicks <= MAX_TICKS, "maxTicks must be between 1 and " + MAX_TICKS );
+        require( gridWidth >= 2 && gridHeight >= 2 && ( long ) gridWidth * gridHeight <= 1_000_000, "grid must be at least 2x2 and at most 1,000,000 cells" );
+        require( snakesPerGame > 0 && snakesPerGame <= gridWidth * gridHeight / 2, "snakesPerGame must be between 1 and half the grid cells" );
+        require( snakesPerGame <= MAX_SNAKES, "snakesPerGame must be at most " + MAX_SNAKES );
+        require( ( long ) snakesPerGame * gridWidth * gridHeight <= MAX_SNAKE_CELLS, "snakesPerGame x grid cells must be at most " + MAX_SNAKE_CELLS );
+        require( ( long ) games * maxTicks * snakesPerGame <= MAX_SNAKE_MOVES, "games x maxTicks x snakesPerGame must be at most " + MAX_SNAKE_MOVES );
+        require( threads > 0, "threads must be positive" );
+        require( botRandomness >= 0 && botRandomness <= 1, "botRandomness must be between 0 and 1" );
+        this.games = games;
+        this.maxTicks = maxTicks;
+        this.snakesPerGame = snakesPerGame;
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.seed = seed;
+        this.threads = threads;
+        this.botRandomness = botRandomness;
+    }
+
+    /**
+     * Fails with the given message unless the condition holds.
+     */
+    private static void require( boolean condition, String message ) {
+        if ( !condition ) {
+            throw new IllegalArgumentException( message );
+        }
+    }
+}
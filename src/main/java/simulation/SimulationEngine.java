@@ -0,0 +1,57 @@
+package simulation;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Runs batches of independent, seeded games without any WebSocket or CDI dependency, on the live game's rules.
+ * Games are spread over a dedicated fork-join pool, each worker accumulating its own statistics, so a batch scales
+ * with the number of cores. The same configuration always yields the same statistics.
+ */
+public class SimulationEngine {
+
+    /**
+     * Runs a batch of games and returns their aggregate statistics.
+     *
+     * @param config the simulation configuration
+     * @return the aggregate statistics
+     * @throws IllegalStateException if the batch is interrupted or a game fails; the remaining games are cancelled
+     */
+    public SimulationResult run( SimulationConfig config ) {
+        ForkJoinPool pool = new ForkJoinPool( config.getThreads( ) );
+        long start = System.nanoTime( );
+        try {
+            SimulationStats stats = pool.submit( ( ) -> IntStream.range( 0, config.getGames( ) )
+                    .parallel( )
+                    .collect( SimulationStats::new, ( acc, game ) -> playGame( config, game, acc ), SimulationStats::merge )
+            ).get( );
+            return stats.toResult( config, System.nanoTime( ) - start );
+        } catch (InterruptedException e) {
+            Thread.currentThread( ).interrupt( );
+            throw new IllegalStateException( "Simulation interrupted", e );
+        } catch (ExecutionException e) {
+            throw new IllegalStateException( "Simulation failed: " + e.getCause( ).getMessage( ), e.getCause( ) );
+        } finally {
+            pool.shutdownNow( );
+        }
+    }
+
+    /**
+     * Plays a single game, seeded from the base seed and the game's index.
+     *
+     * @param config the simulation configuration
+     * @param game   the index of the game
+     * @param stats  the accumulator to record the outcome in
+     */
+    private static void playGame( SimulationConfig config, int game, SimulationStats stats ) {
+        // The pool interrupts its workers when the batch is abandoned; stop at the next game
+        if ( Thread.currentThread( ).isInterrupted( ) ) {
+            throw new CancellationException( "Simulation cancelled" );
+        }
+        SplittableRandom random = new SplittableRandom( config.getSeed( ) * 0x9E3779B97F4A7C15L + game );
+        new SimulatedGame( config, random ).play( stats );
+    }
+}
@@ -0,0 +1,86 @@
+package simulation;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * REST endpoint running batches of headless simulated games.
+ * Only one batch runs at a time, and by default on half the cores, so that simulations leave room for the live game.
+ * A batch can keep those cores busy for minutes, so the endpoint is only available when explicitly enabled.
+ */
+@Path( "/simulation" )
+@Produces( MediaType.APPLICATION_JSON )
+public class SimulationResource {
+
+    /**
+     * Admits one batch at a time across all requests.
+     */
+    private static final Semaphore RUNNING = new Semaphore( 1 );
+
+    private final SimulationEngine engine = new SimulationEngine( );
+
+    /**
+     * Whether batches may be run through this endpoint. Off by default and in production.
+     */
+    @ConfigProperty( name = "snake.simulation.rest-enabled", defaultValue = "false" )
+    boolean enabled;
+
+    /**
+     * Runs a batch of simulated games and returns their aggregate statistics.
+     *
+     * @param games      the number of games
+     * @param ticks      the tick limit of each game
+     * @param snakes     the number of snakes in each game
+     * @param width      the width of the grid
+     * @param height     the height of the grid
+     * @param seed       the base seed
+     * @param threads    the number of worker threads, at most one per core; 0 for half the cores
+     * @param randomness the probability that a bot picks a random safe move
+     * @return the aggregate statistics
+     * @throws NotFoundException       if the endpoint is not enabled
+     * @throws WebApplicationException with status 429 if another batch is running
+     */
+    @POST
+    public SimulationResult run( @QueryParam( "games" ) @DefaultValue( "1000" ) int games,
+                                 @QueryParam( "ticks" ) @DefaultValue( "10000" ) int ticks,
+                                 @QueryParam( "snakes" ) @DefaultValue( "4" ) int snakes,
+                                 @QueryParam( "width" ) @DefaultValue( "40" ) int width,
+                                 @QueryParam( "height" ) @DefaultValue( "40" ) int height,
+                                 @QueryParam( "seed" ) @DefaultValue( "42" ) long seed,
+                                 @QueryParam( "threads" ) @DefaultValue( "0" ) int threads,
+                                 @QueryParam( "randomness" ) @DefaultValue( "0.1" ) double randomness ) {
+        if ( !enabled ) {
+            throw new NotFoundException( "Simulations are disabled; set snake.simulation.rest-enabled=true to run them" );
+        }
+        int cores = Runtime.getRuntime( ).availableProcessors( );
+        if ( threads > cores ) {
+            throw new BadRequestException( "threads must be at most " + cores );
+        }
+        int workers = threads > 0 ? threads : Math.max( 1, cores / 2 );
+        SimulationConfig config;
+        try {
+            config = new SimulationConfig( games, ticks, snakes, width, height, seed, workers, randomness );
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException( e.getMessage( ) );
+        }
+        if ( !RUNNING.tryAcquire( ) ) {
+            throw new WebApplicationException( "A simulation is already running, try again later", Response.Status.TOO_MANY_REQUESTS );
+        }
+        try {
+            return engine.run( config );
+        } finally {
+            RUNNING.release( );
+        }
+    }
+}
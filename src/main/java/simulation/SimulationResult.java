@@ -0,0 +1,37 @@
+package simulation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import models.CollisionType;
+
+import java.util.Map;
+
+/**
+ * Aggregate statistics of a batch of simulated games.
+ */
+@Getter
+@AllArgsConstructor
+public class SimulationResult {
+    private int games;
+    private int snakesPerGame;
+    private int threads;
+    /** Game ticks played across all games; in one tick every living snake of a game moves once. */
+    private long ticks;
+    /** Snake moves played across all games. */
+    private long snakeMoves;
+    private long elapsedMillis;
+    private double ticksPerSecond;
+    private double snakeMovesPerSecond;
+    /** Survival lengths of all snakes, in ticks. */
+    private int minSurvivalTicks;
+    private double meanSurvivalTicks;
+    private int medianSurvivalTicks;
+    private int p90SurvivalTicks;
+    private int maxSurvivalTicks;
+    private long foodEaten;
+    /** Food items eaten per snake move. */
+    private double foodRate;
+    /** Snakes still alive when their game hit the tick limit. */
+    private long survivors;
+    private Map< CollisionType, Long > collisions;
+}
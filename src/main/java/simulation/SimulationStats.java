@@ -0,0 +1,134 @@
+package simulation;
+
+import models.CollisionType;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Mutable accumulator of game outcomes. Each worker fills its own instance; instances are merged at the end.
+ */
+final class SimulationStats {
+    private int games;
+    private long ticks;
+    private long snakeTicks;
+    private long foodEaten;
+    private long survivors;
+    private final long[] collisions = new long[CollisionType.values( ).length];
+    /** Number of snakes by survived ticks, grown to the longest survival seen. */
+    private long[] survivals = new long[1024];
+    private long survivalCount;
+    private long survivalSum;
+
+    /**
+     * Records the outcome of one game.
+     *
+     * @param gameTicks     the number of ticks the game lasted
+     * @param survivedTicks the number of ticks each snake survived
+     * @param foodEaten     the number of food items each snake ate
+     * @param deaths        the cause of death of each snake, or {@code null} for survivors
+     */
+    void recordGame( int gameTicks, int[] survivedTicks, int[] foodEaten, CollisionType[] deaths ) {
+        games++;
+        ticks += gameTicks;
+        for ( int s = 0; s < survivedTicks.length; s++ ) {
+            addSurvival( survivedTicks[s] );
+            snakeTicks += survivedTicks[s] + ( deaths[s] != null ? 1 : 0 );
+            this.foodEaten += foodEaten[s];
+            if ( deaths[s] == null ) {
+                survivors++;
+            } else {
+                collisions[deaths[s].ordinal( )]++;
+            }
+        }
+    }
+
+    /**
+     * Adds the outcomes recorded by another accumulator to this one.
+     *
+     * @param other the accumulator to merge
+     */
+    void merge( SimulationStats other ) {
+        games += other.games;
+        ticks += other.ticks;
+        snakeTicks += other.snakeTicks;
+        foodEaten += other.foodEaten;
+        survivors += other.survivors;
+        for ( int i = 0; i < collisions.length; i++ ) {
+            collisions[i] += other.collisions[i];
+        }
+        if ( other.survivals.length > survivals.length ) {
+            survivals = Arrays.copyOf( survivals, other.survivals.length );
+        }
+        for ( int i = 0; i < other.survivals.length; i++ ) {
+            survivals[i] += other.survivals[i];
+        }
+        survivalCount += other.survivalCount;
+        survivalSum += other.survivalSum;
+    }
+
+    /**
+     * Builds the aggregate result.
+     *
+     * @param config        the configuration the games were run with
+     * @param elapsedNanos the wall-clock time the batch took
+     * @return the aggregate result
+     */
+    SimulationResult toResult( SimulationConfig config, long elapsedNanos ) {
+        double seconds = Math.max( elapsedNanos, 1 ) / 1_000_000_000.0;
+        Map< CollisionType, Long > collisionCounts = new EnumMap<>( CollisionType.class );
+        for ( CollisionType type : CollisionType.values( ) ) {
+            collisionCounts.put( type, collisions[type.ordinal( )] );
+        }
+        return new SimulationResult(
+                games,
+                config.getSnakesPerGame( ),
+                config.getThreads( ),
+                ticks,
+                snakeTicks,
+                elapsedNanos / 1_000_000,
+                ticks / seconds,
+                snakeTicks / seconds,
+                percentile( 0 ),
+                survivalCount == 0 ? 0 : survivalSum / ( double ) survivalCount,
+                percentile( 0.5 ),
+                percentile( 0.9 ),
+                percentile( 1 ),
+                foodEaten,
+                snakeTicks == 0 ? 0 : foodEaten / ( double ) snakeTicks,
+                survivors,
+                collisionCounts
+        );
+    }
+
+    /**
+     * Counts a survival length, growing the histogram as needed.
+     */
+    private void addSurvival( int survivedTicks ) {
+        if ( survivedTicks >= survivals.length ) {
+            survivals = Arrays.copyOf( survivals, Math.max( survivals.length * 2, survivedTicks + 1 ) );
+        }
+        survivals[survivedTicks]++;
+        survivalCount++;
+        survivalSum += survivedTicks;
+    }
+
+    /**
+     * Returns the nearest-rank percentile of the survival lengths, or zero if there are none.
+     */
+    private int percentile( double fraction ) {
+        if ( survivalCount == 0 ) {
+            return 0;
+        }
+        long rank = Math.max( 1, ( long ) Math.ceil( fraction * survivalCount ) );
+        long seen = 0;
+        for ( int ticks = 0; ticks < survivals.length; ticks++ ) {
+            seen += survivals[ticks];
+            if ( seen >= rank ) {
+                return ticks;
+            }
+        }
+        return survivals.length - 1;
+    }
+}
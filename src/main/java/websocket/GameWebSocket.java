@@ -1,33 +1,39 @@
 package websocket;
 
+import cluster.ClusterService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import dtos.GameStateDTO;
-import dtos.PointerDTO;
-import dtos.SnakeDTO;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.websocket.CloseReason;
 import jakarta.websocket.OnClose;
 import jakarta.websocket.OnMessage;
 import jakarta.websocket.OnOpen;
 import jakarta.websocket.Session;
 import jakarta.websocket.server.ServerEndpoint;
 import lombok.extern.slf4j.Slf4j;
+import models.GameState;
 import models.Player;
 import models.Pointer;
 import models.Snake;
+import overload.OverloadController;
 import services.GameService;
+import services.SpectatorService;
 
+import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
  * WebSocket server endpoint that manages communication between the server and connected game clients.
  * Handles the game logic such as player connections, movements, and broadcasting the game state to all players.
+ * Clients pick a room with the {@code room} query parameter; rooms hosted on another cluster node are relayed there.
  */
 @ApplicationScoped
 @ServerEndpoint( "/game" )
@@ -41,20 +47,48 @@ public class GameWebSocket {
      */
     private static final Map< Session, Player > players = new ConcurrentHashMap<>( );
 
+    /**
+     * The sessions of {@link #players} by player ID, so that messages to a player need no search.
+     */
+    private static final Map< String, Session > sessionsByPlayerId = new ConcurrentHashMap<>( );
+
+    /**
+     * The sessions of {@link #players} by room ID, so that a broadcast only visits the sessions of its own room.
+     */
+    private static final Map< String, Set< Session > > sessionsByRoom = new ConcurrentHashMap<>( );
+
+    private static final int MAX_ROOM_ID_LENGTH = 64;
+
     @Inject
     GameService gameService;
 
+    @Inject
+    ClusterService clusterService;
+
+    @Inject
+    SpectatorService spectatorService;
+
+    @Inject
+    OverloadController overloadController;
+
     /**
      * Handles the event when a new WebSocket connection is opened.
-     * Initializes a new player and their snake, and adds them to the game state.
+     * Initializes a new player and their snake, and adds them to the requested room.
+     * While this node is overloaded, connections to rooms it hosts are refused.
      *
      * @param session The WebSocket session representing the connection to the player.
      */
     @OnOpen
     public void onOpen( Session session ) {
-        Player player = new Player( session.getId( ), "Player" + session.getId( ), new Snake( new Pointer( 5, 5 ) ) );
-        players.put( session, player );
-        gameService.addPlayer( session.getId( ), player );
+        String roomId = resolveRoomId( session );
+        if ( overloadController.isRefusingJoins( ) && clusterService.isLocal( roomId ) ) {
+            refuse( session, roomId );
+            return;
+        }
+        String playerId = clusterService.playerIdFor( session.getId( ) );
+        Player player = new Player( playerId, "Player" + playerId, new Snake( new Pointer( 5, 5 ) ), roomId );
+        register( session, player );
+        clusterService.join( player );
     }
 
     /**
@@ -69,7 +103,10 @@ public class GameWebSocket {
         Map< String, Object > request = parseMessage( message );
         String direction = ( String ) request.get( "direction" );
 
-        gameService.movePlayer( session.getId( ), direction );
+        Player player = players.get( session );
+        if ( player != null ) {
+            clusterService.move( player, direction );
+        }
     }
 
     /**
@@ -79,10 +116,17 @@ public class GameWebSocket {
      * @return An Optional containing the player's WebSocket session if found, or empty if not found.
      */
     public Optional< Session > getSessionByPlayerId( String playerId ) {
-        return players.entrySet( ).stream( )
-                .filter( entry -> entry.getValue( ).getId( ).equals( playerId ) )
-                .map( Map.Entry::getKey )
-                .findFirst( );
+        return Optional.ofNullable( sessionsByPlayerId.get( playerId ) );
+    }
+
+    /**
+     * Returns a player connected to this node.
+     *
+     * @param playerId The unique identifier of the player.
+     * @return The player, or empty if the player is not connected to this node.
+     */
+    public Optional< Player > getLocalPlayer( String playerId ) {
+        return getSessionByPlayerId( playerId ).map( players::get );
     }
 
     /**
@@ -93,50 +137,257 @@ public class GameWebSocket {
      */
     @OnClose
     public void onClose( Session session ) {
-        gameService.removePlayer( session.getId( ) );
-        players.remove( session );
+        Player player = unregister( session );
+        if ( player != null ) {
+            clusterService.leave( player );
+        }
+    }
+
+    /**
+     * Returns the players connected to this node, whichever node hosts their room.
+     *
+     * @return the locally connected players
+     */
+    public Collection< Player > getLocalPlayers( ) {
+        return players.values( );
     }
 
     /**
-     * Broadcasts the current game state (i.e., all snakes and the food position) to all connected clients.
-     * Converts the game state to a DTO and sends it as a JSON object.
+     * Broadcasts the current game state of a room (i.e., all snakes and the food position) to all clients in that room,
+     * including clients connected to other cluster nodes, and publishes it to the room's spectators.
+     * Each snake is serialized once into a {@link RoomSnapshot}; the full state and any regional views are assembled
+     * from it. While the node is overloaded, local players and other nodes may receive fewer broadcasts, and players
+     * only nearby snakes. A skipped broadcast is only encoded if this node has spectators of the room, which pace
+     * their own deliveries.
+     *
+     * @param roomId The ID of the room to broadcast.
+     */
+    public void broadcastGameState( String roomId ) {
+        boolean deliver = overloadController.allowBroadcast( roomId, ( ) -> flushRoomState( roomId ) );
+        if ( !deliver && !spectatorService.getWatchedRooms( ).contains( roomId ) ) {
+            return;
+        }
+        Optional< RoomSnapshot > snapshot = currentSnapshot( roomId );
+        if ( snapshot.isEmpty( ) ) {
+            return;
+        }
+        if ( deliver ) {
+            sendRoomState( roomId, snapshot.get( ) );
+        }
+        spectatorService.publish( roomId, snapshot.get( )::toJson );
+    }
+
+    /**
+     * Sends the current state of a room to its players and other nodes, after broadcasts were skipped under overload.
+     *
+     * @param roomId The ID of the room.
      */
-    public void broadcastGameState( ) {
-        Map< String, SnakeDTO > snakeDTOs = new HashMap<>( );
+    private void flushRoomState( String roomId ) {
+        currentSnapshot( roomId ).ifPresent( snapshot -> {
+            sendRoomState( roomId, snapshot );
+            spectatorService.publish( roomId, snapshot::toJson );
+        } );
+    }
 
-        for ( Map.Entry< String, Snake > entry : gameService.getGameState( ).getSnakes( ).entrySet( ) ) {
-            LinkedList< PointerDTO > bodyDTOs = new LinkedList<>( );
+    /**
+     * Sends a room state to the room's local players and forwards it to the nodes relaying the room.
+     *
+     * @param roomId   The ID of the room.
+     * @param snapshot The encoded game state.
+     */
+    private void sendRoomState( String roomId, RoomSnapshot snapshot ) {
+        boolean narrowed = overloadController.isInterestNarrowed( );
+        deliverRoomState( roomId, snapshot, narrowed );
+        clusterService.forwardRoomState( roomId, snapshot, narrowed );
+    }
+
+    /**
+     * Encodes the current state of a room hosted on this node, e.g. to give a new spectator a first frame.
+     *
+     * @param roomId The ID of the room.
+     * @return The encoded game state, or empty if the room is not hosted here or cannot be encoded.
+     */
+    public Optional< RoomSnapshot > currentSnapshot( String roomId ) {
+        GameState gameState = gameService.getGameState( roomId );
+        if ( gameState == null ) {
+            return Optional.empty( );
+        }
+        try {
+            return Optional.of( RoomSnapshot.of( gameState ) );
+        } catch (Exception e) {
+            log.error( "Error serializing game state: {}", e.getMessage( ) );
+            return Optional.empty( );
+        }
+    }
+
+    /**
+     * Sends a room's state to the clients connected to this node that play in that room.
+     * When interest is narrowed, the grid is split into square regions the size of the interest radius and each client
+     * receives only the snakes whose head lies in its own region or a neighbouring one, assembled once per region.
+     * Clients without a snake receive the full state.
+     *
+     * @param roomId   The ID of the room.
+     * @param snapshot The encoded state of the room.
+     * @param narrowed Whether to restrict each client to nearby snakes.
+     */
+    public void deliverRoomState( String roomId, RoomSnapshot snapshot, boolean narrowed ) {
+        if ( !narrowed ) {
+            sendToRoom( roomId, snapshot.toJson( ) );
+            return;
+        }
+        int radius = Math.max( 1, overloadController.getInterestRadius( ) );
+        Map< Long, String > regionJsons = new HashMap<>( );
 
-            for ( Pointer p : entry.getValue( ).getBody( ) ) {
-                bodyDTOs.add( new PointerDTO( p.getX( ), p.getY( ) ) );
+        for ( Session session : sessionsByRoom.getOrDefault( roomId, Set.of( ) ) ) {
+            Player player = players.get( session );
+            if ( player == null ) {
+                continue;
+            }
+            int[] head = snapshot.headOf( player.getId( ) );
+            String json;
+            if ( head == null ) {
+                json = snapshot.toJson( );
+            } else {
+                int regionX = RoomSnapshot.regionOf( head[0], radius );
+                int regionY = RoomSnapshot.regionOf( head[1], radius );
+                long regionKey = ( ( long ) regionX << 32 ) | ( regionY & 0xFFFFFFFFL );
+                json = regionJsons.computeIfAbsent( regionKey, key -> snapshot.toJson( regionX, regionY, radius ) );
             }
+            sendState( session, json );
+        }
+    }
 
-            snakeDTOs.put( entry.getKey( ), new SnakeDTO( bodyDTOs, entry.getValue( ).getDirection( ).toString( ), entry.getValue( ).isAlive( ) ) );
+    /**
+     * Sends an already encoded game state to the clients connected to this node that play in the given room.
+     *
+     * @param roomId        The ID of the room.
+     * @param gameStateJson The encoded game state.
+     */
+    public void sendToRoom( String roomId, String gameStateJson ) {
+        for ( Session session : sessionsByRoom.getOrDefault( roomId, Set.of( ) ) ) {
+            sendState( session, gameStateJson );
         }
+    }
+
+    /**
+     * Sends an encoded game state to a single client, logging the outcome.
+     *
+     * @param session       The WebSocket session of the client.
+     * @param gameStateJson The encoded game state.
+     */
+    private void sendState( Session session, String gameStateJson ) {
+        session.getAsyncRemote( ).sendText( gameStateJson, result -> {
+            if ( result.getException( ) != null ) {
+                log.error( "Error sending game state to player {}: {}", session.getId( ), result.getException( ).getMessage( ) );
+            } else {
+                log.info( "Game state sent to player: {}", session.getId( ) );
+            }
+        } );
+    }
 
-        GameStateDTO gameStateDTO = new GameStateDTO(
-                snakeDTOs,
-                new PointerDTO(
-                        gameService.getGameState( ).getFood( ).getPosition( ).getX( ),
-                        gameService.getGameState( ).getFood( ).getPosition( ).getY( )
-                )
-        );
+    /**
+     * Closes the connection of a locally connected player whose join was refused by the overloaded owner of their room.
+     *
+     * @param playerId The unique identifier of the player.
+     */
+    public void refusePlayer( String playerId ) {
+        getSessionByPlayerId( playerId ).ifPresent( session -> {
+            Player player = unregister( session );
+            refuse( session, player != null ? player.getRoomId( ) : null );
+        } );
+    }
+
+    /**
+     * Adds a locally connected player to the session maps.
+     *
+     * @param session The WebSocket session of the player.
+     * @param player  The player.
+     */
+    private void register( Session session, Player player ) {
+        players.put( session, player );
+        sessionsByPlayerId.put( player.getId( ), session );
+        // Added inside compute so that a concurrent unregister cannot discard the set in between
+        sessionsByRoom.compute( player.getRoomId( ), ( id, sessions ) -> {
+            Set< Session > target = sessions != null ? sessions : ConcurrentHashMap.newKeySet( );
+            target.add( session );
+            return target;
+        } );
+    }
+
+    /**
+     * Removes a locally connected player from the session maps, discarding the room's entry once it is empty.
+     *
+     * @param session The WebSocket session of the player.
+     * @return The removed player, or {@code null} if the session was not registered.
+     */
+    private Player unregister( Session session ) {
+        Player player = players.remove( session );
+        if ( player != null ) {
+            sessionsByPlayerId.remove( player.getId( ), session );
+            sessionsByRoom.computeIfPresent( player.getRoomId( ), ( id, sessions ) -> {
+                sessions.remove( session );
+                return sessions.isEmpty( ) ? null : sessions;
+            } );
+        }
+        return player;
+    }
 
+    /**
+     * Closes a connection because this node is overloaded and refuses new players.
+     *
+     * @param session The WebSocket session to refuse.
+     * @param roomId  The room the client asked for.
+     */
+    private void refuse( Session session, String roomId ) {
+        log.warn( "Refusing player {} for room {}: server overloaded", session.getId( ), roomId );
         try {
-            String gameStateJson = new ObjectMapper( ).writeValueAsString( gameStateDTO );
-
-            for ( Session session : players.keySet( ) ) {
-                session.getAsyncRemote( ).sendText( gameStateJson, result -> {
-                    if ( result.getException( ) != null ) {
-                        log.error( "Error sending game state to player {}: {}", session.getId( ), result.getException( ).getMessage( ) );
-                    } else {
-                        log.info( "Game state sent to player: {}", session.getId( ) );
-                    }
-                } );
-            }
-        } catch (Exception e) {
-            log.error( "Error serializing GameStateDTO: {}", e.getMessage( ) );
+            session.close( new CloseReason( CloseReason.CloseCodes.TRY_AGAIN_LATER, "Server overloaded, try again later" ) );
+        } catch (IOException e) {
+            log.error( "Error refusing player {}: {}", session.getId( ), e.getMessage( ) );
+        }
+    }
+
+    /**
+     * Sends a message to a single player, relaying it to the player's node if they are connected elsewhere.
+     *
+     * @param playerId The unique identifier of the player.
+     * @param message  The encoded message.
+     */
+    public void sendToPlayer( String playerId, String message ) {
+        if ( !deliverToPlayer( playerId, message ) ) {
+            clusterService.forwardToPlayer( playerId, message );
+        }
+    }
+
+    /**
+     * Sends a message to a player connected to this node.
+     *
+     * @param playerId The unique identifier of the player.
+     * @param message  The encoded message.
+     * @return Whether the player is connected to this node.
+     */
+    public boolean deliverToPlayer( String playerId, String message ) {
+        Optional< Session > session = getSessionByPlayerId( playerId );
+        session.ifPresent( s -> s.getAsyncRemote( ).sendText( message ) );
+        return session.isPresent( );
+    }
+
+    /**
+     * Resolves the room requested by the client through the {@code room} query parameter.
+     *
+     * @param session The WebSocket session of the client.
+     * @return The requested room ID, or the default room if none or an invalid one was requested.
+     */
+    private String resolveRoomId( Session session ) {
+        List< String > requested = session.getRequestParameterMap( ).get( "room" );
+        if ( requested == null || requested.isEmpty( ) ) {
+            return GameService.DEFAULT_ROOM;
+        }
+        String roomId = requested.get( 0 ).trim( );
+        if ( roomId.isEmpty( ) || roomId.length( ) > MAX_ROOM_ID_LENGTH ) {
+            return GameService.DEFAULT_ROOM;
         }
+        return roomId;
     }
 
 
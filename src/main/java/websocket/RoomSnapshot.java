@@ -0,0 +1,210 @@
+package websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dtos.PointerDTO;
+import dtos.SnakeDTO;
+import models.GameState;
+import models.Pointer;
+import models.Snake;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Encoded state of a room, kept as one pre-serialized JSON fragment per snake.
+ * Every snake is serialized once per broadcast; the full state and every regional view are assembled from the
+ * fragments by concatenation, producing the same JSON as serializing a {@code GameStateDTO}.
+ */
+public final class RoomSnapshot {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper( );
+
+    private final String foodJson;
+    private final Map< String, Fragment > snakes;
+    private String fullJson;
+
+    private RoomSnapshot( String foodJson, Map< String, Fragment > snakes ) {
+        this.foodJson = foodJson;
+        this.snakes = snakes;
+    }
+
+    /**
+     * Serializes the snakes and food of a game state.
+     *
+     * @param gameState the game state to serialize
+     * @return the snapshot
+     * @throws JsonProcessingException if a snake cannot be serialized
+     */
+    public static RoomSnapshot of( GameState gameState ) throws JsonProcessingException {
+        Map< String, Fragment > snakes = new LinkedHashMap<>( );
+        for ( Map.Entry< String, Snake > entry : gameState.getSnakes( ).entrySet( ) ) {
+            Snake snake = entry.getValue( );
+            LinkedList< PointerDTO > bodyDTOs = new LinkedList<>( );
+
+            for ( Pointer p : snake.getBody( ) ) {
+                bodyDTOs.add( new PointerDTO( p.getX( ), p.getY( ) ) );
+            }
+            String json = OBJECT_MAPPER.writeValueAsString( entry.getKey( ) ) + ":"
+                    + OBJECT_MAPPER.writeValueAsString( new SnakeDTO( bodyDTOs, snake.getDirection( ).toString( ), snake.isAlive( ) ) );
+            PointerDTO head = bodyDTOs.peekFirst( );
+            snakes.put( entry.getKey( ), head != null ? new Fragment( true, head.getX( ), head.getY( ), json ) : new Fragment( false, 0, 0, json ) );
+        }
+        Pointer food = gameState.getFood( ).getPosition( );
+        return new RoomSnapshot( OBJECT_MAPPER.writeValueAsString( new PointerDTO( food.getX( ), food.getY( ) ) ), snakes );
+    }
+
+    /**
+     * Returns the full state as JSON, assembled once and then cached.
+     *
+     * @return the encoded full state
+     */
+    public synchronized String toJson( ) {
+        if ( fullJson == null ) {
+            fullJson = assemble( Integer.MIN_VALUE, Integer.MIN_VALUE, 0 );
+        }
+        return fullJson;
+    }
+
+    /**
+     * Returns the state seen by a player in the given region: only the snakes whose head lies in that region or a
+     * neighbouring one. Snakes without a body are left out.
+     *
+     * @param regionX the region column
+     * @param regionY the region row
+     * @param radius  the region size in cells
+     * @return the encoded regional state
+     */
+    public String toJson( int regionX, int regionY, int radius ) {
+        return assemble( regionX, regionY, radius );
+    }
+
+    /**
+     * Returns the head of a player's snake, or {@code null} if the player has no snake in the snapshot.
+     *
+     * @param playerId the player's ID
+     * @return the head position as {@code {x, y}}
+     */
+    public int[] headOf( String playerId ) {
+        Fragment fragment = snakes.get( playerId );
+        return fragment != null && fragment.hasHead ? new int[]{ fragment.headX, fragment.headY } : null;
+    }
+
+    /**
+     * Encodes the snapshot for the internal cluster link.
+     *
+     * @return the encoded bytes
+     */
+    public byte[] encode( ) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream( );
+        try ( DataOutputStream out = new DataOutputStream( bytes ) ) {
+            writeString( out, foodJson );
+            out.writeInt( snakes.size( ) );
+            for ( Map.Entry< String, Fragment > entry : snakes.entrySet( ) ) {
+                out.writeUTF( entry.getKey( ) );
+                out.writeBoolean( entry.getValue( ).hasHead );
+                out.writeInt( entry.getValue( ).headX );
+                out.writeInt( entry.getValue( ).headY );
+                writeString( out, entry.getValue( ).json );
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException( e );
+        }
+        return bytes.toByteArray( );
+    }
+
+    /**
+     * Decodes a snapshot produced by {@link #encode()}.
+     *
+     * @param encoded the encoded bytes
+     * @param offset  the offset of the snapshot within the bytes
+     * @return the snapshot
+     * @throws IOException if the bytes are malformed
+     */
+    public static RoomSnapshot decode( byte[] encoded, int offset ) throws IOException {
+        try ( DataInputStream in = new DataInputStream( new ByteArrayInputStream( encoded, offset, encoded.length - offset ) ) ) {
+            String foodJson = readString( in );
+            int count = in.readInt( );
+            Map< String, Fragment > snakes = new LinkedHashMap<>( );
+            for ( int i = 0; i < count; i++ ) {
+                String playerId = in.readUTF( );
+                boolean hasHead = in.readBoolean( );
+                int headX = in.readInt( );
+                int headY = in.readInt( );
+                snakes.put( playerId, new Fragment( hasHead, headX, headY, readString( in ) ) );
+            }
+            return new RoomSnapshot( foodJson, snakes );
+        }
+    }
+
+    /**
+     * Returns the region index of a coordinate for the given region size.
+     *
+     * @param coordinate the cell coordinate
+     * @param radius     the region size in cells
+     * @return the region index
+     */
+    public static int regionOf( int coordinate, int radius ) {
+        return Math.floorDiv( coordinate, radius );
+    }
+
+    /**
+     * Concatenates the fragments of the snakes near the given region, or of all snakes if the radius is zero.
+     */
+    private String assemble( int regionX, int regionY, int radius ) {
+        StringBuilder json = new StringBuilder( "{\"snakes\":{" );
+        boolean first = true;
+        for ( Fragment fragment : snakes.values( ) ) {
+            if ( radius > 0 && ( !fragment.hasHead || Math.abs( regionOf( fragment.headX, radius ) - regionX ) > 1
+                    || Math.abs( regionOf( fragment.headY, radius ) - regionY ) > 1 ) ) {
+                continue;
+            }
+            if ( !first ) {
+                json.append( ',' );
+            }
+            json.append( fragment.json );
+            first = false;
+        }
+        return json.append( "},\"foodPosition\":" ).append( foodJson ).append( '}' ).toString( );
+    }
+
+    private static void writeString( DataOutputStream out, String value ) throws IOException {
+        byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+    private static String readString( DataInputStream in ) throws IOException {
+        int length = in.readInt( );
+        if ( length < 0 || length > in.available( ) ) {
+            throw new IOException( "Invalid string length in room snapshot: " + length );
+        }
+        byte[] bytes = new byte[length];
+        in.readFully( bytes );
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    /**
+     * Pre-serialized {@code "playerId":{...}} member of a snake, with its head position for interest filtering.
+     */
+    private static final class Fragment {
+        private final boolean hasHead;
+        private final int headX;
+        private final int headY;
+        private final String json;
+
+        Fragment( boolean hasHead, int headX, int headY, String json ) {
+            this.hasHead = hasHead;
+            this.headX = headX;
+            this.headY = headY;
+            this.json = json;
+        }
+    }
+}
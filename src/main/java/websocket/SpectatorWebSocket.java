@@ -0,0 +1,101 @@
+package websocket;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.websocket.OnClose;
+import jakarta.websocket.OnOpen;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.ServerEndpoint;
+import lombok.extern.slf4j.Slf4j;
+import services.GameService;
+import services.SpectatorService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebSocket server endpoint for spectators.
+ * A spectator watches a room without joining it: no player or snake is created, and the room state is received as
+ * binary UTF-8 JSON frames at a reduced rate. Clients pick the room with the {@code room} query parameter and the
+ * frame rate with the {@code rate} query parameter (frames per second).
+ */
+@ApplicationScoped
+@ServerEndpoint( "/spectate" )
+@Slf4j
+public class SpectatorWebSocket {
+
+    private static final int DEFAULT_RATE = 5;
+    private static final int MAX_ROOM_ID_LENGTH = 64;
+
+    /**
+     * A thread-safe map that holds the active spectator sessions and the room each one watches.
+     */
+    private static final Map< Session, String > spectators = new ConcurrentHashMap<>( );
+
+    @Inject
+    SpectatorService spectatorService;
+
+    /**
+     * Handles the event when a new spectator connects and subscribes them to the requested room.
+     *
+     * @param session The WebSocket session representing the connection to the spectator.
+     */
+    @OnOpen
+    public void onOpen( Session session ) {
+        String roomId = resolveRoomId( session );
+        spectators.put( session, roomId );
+        spectatorService.subscribe( session, roomId, resolveRate( session ) );
+    }
+
+    /**
+     * Handles the event when a spectator disconnects.
+     *
+     * @param session The WebSocket session that was closed.
+     */
+    @OnClose
+    public void onClose( Session session ) {
+        String roomId = spectators.remove( session );
+        if ( roomId != null ) {
+            spectatorService.unsubscribe( session, roomId );
+        }
+    }
+
+    /**
+     * Resolves the room requested by the spectator through the {@code room} query parameter.
+     *
+     * @param session The WebSocket session of the spectator.
+     * @return The requested room ID, or the default room if none or an invalid one was requested.
+     */
+    private String resolveRoomId( Session session ) {
+        String roomId = firstParameter( session, "room" );
+        if ( roomId == null || roomId.isBlank( ) || roomId.trim( ).length( ) > MAX_ROOM_ID_LENGTH ) {
+            return GameService.DEFAULT_ROOM;
+        }
+        return roomId.trim( );
+    }
+
+    /**
+     * Resolves the frame rate requested by the spectator through the {@code rate} query parameter.
+     *
+     * @param session The WebSocket session of the spectator.
+     * @return The requested frame rate, or the default rate if none or an invalid one was requested.
+     */
+    private int resolveRate( Session session ) {
+        String rate = firstParameter( session, "rate" );
+        try {
+            return rate != null ? Integer.parseInt( rate.trim( ) ) : DEFAULT_RATE;
+        } catch (NumberFormatException e) {
+            log.warn( "Invalid spectator rate '{}', using {} fps", rate, DEFAULT_RATE );
+            return DEFAULT_RATE;
+        }
+    }
+
+    /**
+     * Returns the first value of a query parameter, or {@code null} if it is absent.
+     */
+    private String firstParameter( Session session, String name ) {
+        List< String > values = session.getRequestParameterMap( ).get( name );
+        return values == null || values.isEmpty( ) ? null : values.get( 0 );
+    }
+}
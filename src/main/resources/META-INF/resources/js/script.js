@@ -1,5 +1,5 @@
 class SnakeGame {
-    constructor(webSocketUrl, canvasId) {
+    constructor(webSocketUrl, canvasId, spectator = false) {
         this.WEBSOCKET_URL = webSocketUrl;
         this.CANVAS_ID = canvasId;
         this.COLLISION_SOUND_ID = 'crashSound';
@@ -14,17 +14,23 @@ class SnakeGame {
         this.scores = {};
         this.currentDirection = 'RIGHT';
         this.gameInterval = null;
+        this.spectator = spectator;
         this.socket = this.initializeWebSocket();
-        this.startGame();
-        this.bindKeyEvents();
+        if (!this.spectator) {
+            this.startGame();
+            this.bindKeyEvents();
+        }
     }
 
     initializeWebSocket() {
         const ws = new WebSocket(this.WEBSOCKET_URL);
+        ws.binaryType = 'arraybuffer';
 
         ws.onopen = () => {
             console.log("WebSocket connected.");
-            ws.send(JSON.stringify({method: 'requestState'}));
+            if (!this.spectator) {
+                ws.send(JSON.stringify({method: 'requestState'}));
+            }
         };
 
         ws.onerror = (error) => console.error("WebSocket error:", error);
@@ -35,7 +41,9 @@ class SnakeGame {
     }
 
     handleServerMessage(event) {
-        const data = JSON.parse(event.data);
+        // Spectator frames arrive as binary UTF-8 JSON
+        const text = typeof event.data === 'string' ? event.data : new TextDecoder().decode(event.data);
+        const data = JSON.parse(text);
 
         if (data.collision) {
             this.playSound(this.COLLISION_SOUND_ID);
@@ -260,4 +268,8 @@ class SnakeGame {
     }
 }
 
-const game = new SnakeGame("ws://localhost:8080/game", "gameCanvas");
\ No newline at end of file
+const params = new URLSearchParams(location.search);
+const room = encodeURIComponent(params.get('room') || 'lobby');
+const game = params.has('spectate')
+    ? new SnakeGame(`ws://${location.host}/spectate?room=${room}&rate=${encodeURIComponent(params.get('rate') || 5)}`, "gameCanvas", true)
+    : new SnakeGame(`ws://${location.host}/game?room=${room}`, "gameCanvas");
\ No newline at end of file
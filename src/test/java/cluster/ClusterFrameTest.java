@@ -0,0 +1,97 @@
+package cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the wire format of {@link ClusterFrame}.
+ */
+class ClusterFrameTest {
+
+    /**
+     * A written frame reads back unchanged; missing IDs and payloads read back empty.
+     *
+     * @throws IOException if the frame cannot be written or read
+     */
+    @Test
+    void roundTrips( ) throws IOException {
+        ClusterFrame frame = read( write( new ClusterFrame( FrameType.MOVE, "lobby", "node-1-7", new byte[]{ 3 } ) ) );
+        assertEquals( FrameType.MOVE, frame.getType( ) );
+        assertEquals( "lobby", frame.getRoomId( ) );
+        assertEquals( "node-1-7", frame.getPlayerId( ) );
+        assertArrayEquals( new byte[]{ 3 }, frame.getPayload( ) );
+
+        ClusterFrame empty = read( write( new ClusterFrame( FrameType.LEAVE, null, null, null ) ) );
+        assertEquals( "", empty.getRoomId( ) );
+        assertEquals( "", empty.getPlayerId( ) );
+        assertArrayEquals( new byte[0], empty.getPayload( ) );
+    }
+
+    /**
+     * Frames with an unknown type code are rejected.
+     */
+    @Test
+    void rejectsUnknownType( ) {
+        assertThrows( IOException.class, ( ) -> read( header( ( byte ) 99, 0 ) ) );
+        assertThrows( IOException.class, ( ) -> read( header( ( byte ) 0, 0 ) ) );
+    }
+
+    /**
+     * Negative and oversized payload lengths are rejected before anything is allocated.
+     */
+    @Test
+    void rejectsInvalidLengths( ) {
+        assertThrows( IOException.class, ( ) -> read( header( FrameType.MOVE.code( ), -1 ) ) );
+        assertThrows( IOException.class, ( ) -> read( header( FrameType.MOVE.code( ), ClusterFrame.MAX_PAYLOAD_BYTES + 1 ) ) );
+        assertThrows( IOException.class, ( ) -> read( header( FrameType.MOVE.code( ), Integer.MAX_VALUE ) ) );
+    }
+
+    /**
+     * A frame cut short of its announced payload is rejected.
+     */
+    @Test
+    void rejectsTruncatedPayload( ) {
+        assertThrows( IOException.class, ( ) -> read( header( FrameType.MOVE.code( ), 10 ) ) );
+    }
+
+    /**
+     * Encodes a frame.
+     */
+    private static byte[] write( ClusterFrame frame ) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream( );
+        DataOutputStream out = new DataOutputStream( bytes );
+        frame.writeTo( out );
+        out.flush( );
+        return bytes.toByteArray( );
+    }
+
+    /**
+     * Decodes a frame.
+     */
+    private static ClusterFrame read( byte[] bytes ) throws IOException {
+        return ClusterFrame.readFrom( new DataInputStream( new ByteArrayInputStream( bytes ) ) );
+    }
+
+    /**
+     * Encodes a frame header with the given type code and payload length, without any payload.
+     */
+    private static byte[] header( byte type, int length ) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream( );
+        DataOutputStream out = new DataOutputStream( bytes );
+        out.writeByte( type );
+        out.writeUTF( "room" );
+        out.writeUTF( "player" );
+        out.writeInt( length );
+        out.flush( );
+        return bytes.toByteArray( );
+    }
+}
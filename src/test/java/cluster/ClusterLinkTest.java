@@ -0,0 +1,151 @@
+package cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests delivery guarantees of {@link ClusterLink} over loopback sockets.
+ */
+class ClusterLinkTest {
+    private static final String SECRET = "test-secret";
+
+    private final BlockingQueue< ClusterFrame > received = new LinkedBlockingQueue<>( );
+    private ClusterLink sender;
+    private ClusterLink receiver;
+
+    /**
+     * Stops both links.
+     */
+    @AfterEach
+    void tearDown( ) {
+        if ( sender != null ) {
+            sender.stop( );
+        }
+        if ( receiver != null ) {
+            receiver.stop( );
+        }
+    }
+
+    /**
+     * Frames queued while the peer is unreachable are delivered once it comes up, except room states.
+     *
+     * @throws Exception if the receiver cannot be started or waiting is interrupted
+     */
+    @Test
+    void retriesFramesUntilPeerIsReachable( ) throws Exception {
+        int port = freePort( );
+        sender = new ClusterLink( "node-1", SECRET, ( node, frame ) -> {
+        } );
+        ClusterMember member = new ClusterMember( "node-2", "127.0.0.1", port );
+        sender.send( member, new ClusterFrame( FrameType.ROOM_STATE, "room", null, new byte[]{ 0 } ) );
+        sender.send( member, new ClusterFrame( FrameType.MIGRATE, "room", null, new byte[]{ 1, 2, 3 } ) );
+
+        Thread.sleep( 700 );
+        receiver = new ClusterLink( "node-2", SECRET, ( node, frame ) -> received.add( frame ) );
+        receiver.start( "127.0.0.1", port );
+
+        ClusterFrame frame = received.poll( 5, TimeUnit.SECONDS );
+        assertNotNull( frame );
+        assertEquals( FrameType.MIGRATE, frame.getType( ) );
+        assertEquals( "room", frame.getRoomId( ) );
+    }
+
+    /**
+     * Disconnecting a peer still delivers the frames queued for it, such as the membership list that drains it.
+     *
+     * @throws Exception if the receiver cannot be started or waiting is interrupted
+     */
+    @Test
+    void disconnectDeliversQueuedFrames( ) throws Exception {
+        int port = freePort( );
+        receiver = new ClusterLink( "node-2", SECRET, ( node, frame ) -> received.add( frame ) );
+        receiver.start( "127.0.0.1", port );
+        sender = new ClusterLink( "node-1", SECRET, ( node, frame ) -> {
+        } );
+
+        sender.send( new ClusterMember( "node-2", "127.0.0.1", port ), new ClusterFrame( FrameType.MEMBERSHIP, null, null, new byte[]{ 7 } ) );
+        sender.disconnect( "node-2" );
+
+        ClusterFrame frame = received.poll( 5, TimeUnit.SECONDS );
+        assertNotNull( frame );
+        assertEquals( FrameType.MEMBERSHIP, frame.getType( ) );
+    }
+
+    /**
+     * Connections presenting a different secret are dropped before any frame is handled.
+     *
+     * @throws Exception if the receiver cannot be started or waiting is interrupted
+     */
+    @Test
+    void rejectsPeersWithWrongSecret( ) throws Exception {
+        int port = freePort( );
+        receiver = new ClusterLink( "node-2", SECRET, ( node, frame ) -> received.add( frame ) );
+        receiver.start( "127.0.0.1", port );
+        sender = new ClusterLink( "node-1", "other-secret", ( node, frame ) -> {
+        } );
+
+        sender.send( new ClusterMember( "node-2", "127.0.0.1", port ), new ClusterFrame( FrameType.LEAVE, "room", "p", null ) );
+
+        assertNull( received.poll( 1, TimeUnit.SECONDS ) );
+    }
+
+    /**
+     * The connecting side only sends a proof of the secret, never the secret itself, and sends no frame to a peer
+     * that cannot prove the secret in turn.
+     *
+     * @throws Exception if the fake peer fails
+     */
+    @Test
+    void neverSendsSecretOverTheWire( ) throws Exception {
+        try ( ServerSocket impostor = new ServerSocket( 0 ) ) {
+            sender = new ClusterLink( "node-1", SECRET, ( node, frame ) -> {
+            } );
+            sender.send( new ClusterMember( "node-2", "127.0.0.1", impostor.getLocalPort( ) ),
+                    new ClusterFrame( FrameType.MIGRATE, "room", null, new byte[]{ 1 } ) );
+
+            impostor.setSoTimeout( 5000 );
+            try ( Socket socket = impostor.accept( ) ) {
+                DataOutputStream out = new DataOutputStream( socket.getOutputStream( ) );
+                new ClusterFrame( FrameType.HELLO, null, "node-2", new byte[16] ).writeTo( out );
+                out.writeByte( 99 );
+                out.flush( );
+
+                socket.setSoTimeout( 1000 );
+                ByteArrayOutputStream sent = new ByteArrayOutputStream( );
+                try {
+                    socket.getInputStream( ).transferTo( sent );
+                } catch (SocketTimeoutException e) {
+                    // The sender keeps the connection open until it gives up on the handshake
+                }
+                String wire = sent.toString( StandardCharsets.ISO_8859_1 );
+                assertFalse( wire.contains( SECRET ) );
+                assertFalse( wire.contains( "room" ) );
+            }
+        }
+    }
+
+    /**
+     * Returns a port that was free a moment ago.
+     */
+    private static int freePort( ) throws IOException {
+        try ( ServerSocket socket = new ServerSocket( 0 ) ) {
+            return socket.getLocalPort( );
+        }
+    }
+}
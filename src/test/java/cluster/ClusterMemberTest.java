@@ -0,0 +1,36 @@
+package cluster;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests parsing and formatting of {@link ClusterMember}.
+ */
+class ClusterMemberTest {
+
+    /**
+     * A well-formed spec parses into its parts, ignoring surrounding whitespace, and formats back unchanged.
+     */
+    @Test
+    void parsesAndFormats( ) {
+        ClusterMember member = ClusterMember.parse( "  node-2@10.0.0.5:9102 " );
+        assertEquals( "node-2", member.getNodeId( ) );
+        assertEquals( "10.0.0.5", member.getHost( ) );
+        assertEquals( 9102, member.getPort( ) );
+        assertEquals( "node-2@10.0.0.5:9102", member.toString( ) );
+        assertEquals( member, ClusterMember.parse( member.toString( ) ) );
+    }
+
+    /**
+     * Malformed specs are rejected with an {@link IllegalArgumentException}.
+     */
+    @Test
+    void rejectsMalformedSpecs( ) {
+        for ( String spec : new String[]{ null, "", "node-1", "node-1@localhost", "@localhost:9101", "node-1@:9101",
+                "node-1@localhost:", "node-1@localhost:port", "node-1:9101" } ) {
+            assertThrows( IllegalArgumentException.class, ( ) -> ClusterMember.parse( spec ) );
+        }
+    }
+}
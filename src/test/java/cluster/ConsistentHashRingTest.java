@@ -0,0 +1,112 @@
+package cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests room ownership on {@link ConsistentHashRing}.
+ */
+class ConsistentHashRingTest {
+    private static final int VIRTUAL_NODES = 64;
+    private static final int ROOMS = 2000;
+
+    private static final ClusterMember NODE_1 = new ClusterMember( "node-1", "localhost", 9101 );
+    private static final ClusterMember NODE_2 = new ClusterMember( "node-2", "localhost", 9102 );
+    private static final ClusterMember NODE_3 = new ClusterMember( "node-3", "localhost", 9103 );
+    private static final ClusterMember NODE_4 = new ClusterMember( "node-4", "localhost", 9104 );
+
+    /**
+     * An empty ring owns no room.
+     */
+    @Test
+    void emptyRingHasNoOwner( ) {
+        assertNull( new ConsistentHashRing( List.of( ), VIRTUAL_NODES ).ownerOf( "lobby" ) );
+    }
+
+    /**
+     * Every node computes the same owners, whatever the order of its member list.
+     */
+    @Test
+    void ownershipIsIndependentOfMemberOrder( ) {
+        ConsistentHashRing ring = new ConsistentHashRing( List.of( NODE_1, NODE_2, NODE_3 ), VIRTUAL_NODES );
+        ConsistentHashRing reordered = new ConsistentHashRing( List.of( NODE_3, NODE_1, NODE_2 ), VIRTUAL_NODES );
+        for ( String room : rooms( ) ) {
+            assertEquals( ring.ownerOf( room ), reordered.ownerOf( room ), room );
+        }
+    }
+
+    /**
+     * Rooms are spread over all members.
+     */
+    @Test
+    void spreadsRoomsOverMembers( ) {
+        Map< ClusterMember, Integer > owned = owners( new ConsistentHashRing( List.of( NODE_1, NODE_2, NODE_3 ), VIRTUAL_NODES ) );
+        for ( ClusterMember member : List.of( NODE_1, NODE_2, NODE_3 ) ) {
+            int count = owned.getOrDefault( member, 0 );
+            assertTrue( count > ROOMS / 6, member + " owns only " + count + " rooms" );
+        }
+    }
+
+    /**
+     * Adding a node only moves rooms to that node, and only about its share of them.
+     */
+    @Test
+    void addingMemberOnlyMovesRoomsToIt( ) {
+        ConsistentHashRing before = new ConsistentHashRing( List.of( NODE_1, NODE_2, NODE_3 ), VIRTUAL_NODES );
+        ConsistentHashRing after = new ConsistentHashRing( List.of( NODE_1, NODE_2, NODE_3, NODE_4 ), VIRTUAL_NODES );
+        int moved = 0;
+        for ( String room : rooms( ) ) {
+            if ( !before.ownerOf( room ).equals( after.ownerOf( room ) ) ) {
+                assertEquals( NODE_4, after.ownerOf( room ), room );
+                moved++;
+            }
+        }
+        assertTrue( moved > ROOMS / 8 && moved < ROOMS / 2, moved + " rooms moved" );
+    }
+
+    /**
+     * Draining a node only moves the rooms it owned.
+     */
+    @Test
+    void drainingMemberOnlyMovesItsRooms( ) {
+        ConsistentHashRing before = new ConsistentHashRing( List.of( NODE_1, NODE_2, NODE_3 ), VIRTUAL_NODES );
+        ConsistentHashRing after = new ConsistentHashRing( List.of( NODE_1, NODE_3 ), VIRTUAL_NODES );
+        for ( String room : rooms( ) ) {
+            if ( before.ownerOf( room ).equals( NODE_2 ) ) {
+                assertTrue( !after.ownerOf( room ).equals( NODE_2 ), room );
+            } else {
+                assertEquals( before.ownerOf( room ), after.ownerOf( room ), room );
+            }
+        }
+    }
+
+    /**
+     * Returns the test room IDs.
+     */
+    private static List< String > rooms( ) {
+        List< String > rooms = new ArrayList<>( );
+        for ( int i = 0; i < ROOMS; i++ ) {
+            rooms.add( "room-" + i );
+        }
+        return rooms;
+    }
+
+    /**
+     * Counts the test rooms owned by each member.
+     */
+    private static Map< ClusterMember, Integer > owners( ConsistentHashRing ring ) {
+        Map< ClusterMember, Integer > owned = new HashMap<>( );
+        for ( String room : rooms( ) ) {
+            owned.merge( ring.ownerOf( room ), 1, Integer::sum );
+        }
+        return owned;
+    }
+}
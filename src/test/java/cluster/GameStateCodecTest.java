@@ -0,0 +1,77 @@
+package cluster;
+
+import models.Direction;
+import models.GameState;
+import models.Pointer;
+import models.Snake;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the room hand-over encoding of {@link GameStateCodec}.
+ */
+class GameStateCodecTest {
+
+    /**
+     * Grid, food and every snake's body, direction and liveness survive a round trip.
+     */
+    @Test
+    void roundTrips( ) {
+        GameState source = new GameState( 40, 30 );
+        source.getFood( ).setPosition( new Pointer( 12, 7 ) );
+        source.addSnake( "a", snake( Direction.UP, true, new Pointer( 3, 3 ), new Pointer( 3, 4 ), new Pointer( 3, 5 ) ) );
+        source.addSnake( "b", snake( Direction.LEFT, false, new Pointer( 20, 10 ) ) );
+
+        GameState target = new GameState( 10, 10 );
+        GameStateCodec.decodeInto( GameStateCodec.encode( source ), target );
+
+        assertEquals( 40, target.getGridWidth( ) );
+        assertEquals( 30, target.getGridHeight( ) );
+        assertEquals( new Pointer( 12, 7 ), target.getFood( ).getPosition( ) );
+        assertEquals( 2, target.getSnakes( ).size( ) );
+        Snake a = target.getSnakes( ).get( "a" );
+        assertIterableEquals( List.of( new Pointer( 3, 3 ), new Pointer( 3, 4 ), new Pointer( 3, 5 ) ), a.getBody( ) );
+        assertEquals( Direction.UP, a.getDirection( ) );
+        assertTrue( a.isAlive( ) );
+        Snake b = target.getSnakes( ).get( "b" );
+        assertEquals( Direction.LEFT, b.getDirection( ) );
+        assertFalse( b.isAlive( ) );
+    }
+
+    /**
+     * Decoding replaces snakes of the same players and keeps the target's other snakes.
+     */
+    @Test
+    void replacesSnakesOfSamePlayers( ) {
+        GameState source = new GameState( 40, 40 );
+        source.addSnake( "a", snake( Direction.DOWN, true, new Pointer( 8, 8 ) ) );
+
+        GameState target = new GameState( 40, 40 );
+        Snake other = snake( Direction.RIGHT, true, new Pointer( 1, 1 ) );
+        target.addSnake( "a", snake( Direction.RIGHT, true, new Pointer( 30, 30 ) ) );
+        target.addSnake( "b", other );
+        GameStateCodec.decodeInto( GameStateCodec.encode( source ), target );
+
+        assertEquals( new Pointer( 8, 8 ), target.getSnakes( ).get( "a" ).getHead( ) );
+        assertSame( other, target.getSnakes( ).get( "b" ) );
+    }
+
+    /**
+     * Builds a snake with the given body, head first.
+     */
+    private static Snake snake( Direction direction, boolean alive, Pointer... body ) {
+        Snake snake = new Snake( body[0] );
+        snake.setBody( new LinkedList<>( List.of( body ) ) );
+        snake.setDirection( direction );
+        snake.setAlive( alive );
+        return snake;
+    }
+}
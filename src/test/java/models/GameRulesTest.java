@@ -0,0 +1,135 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the move, collision and food rules of {@link GameRules}.
+ */
+class GameRulesTest {
+    private final SplittableRandom random = new SplittableRandom( 7 );
+
+    /**
+     * A move adds a head in the snake's direction and drops the tail.
+     */
+    @Test
+    void movesHeadAndDropsTail( ) {
+        GameState gameState = room( new Pointer( 9, 9 ) );
+        Snake snake = snake( Direction.DOWN, new Pointer( 2, 2 ), new Pointer( 1, 2 ) );
+        gameState.addSnake( "a", snake );
+
+        MoveOutcome outcome = GameRules.move( gameState, "a", snake, random );
+        assertNull( outcome.getCollision( ) );
+        assertFalse( outcome.isAteFood( ) );
+        assertIterableEquals( List.of( new Pointer( 2, 3 ), new Pointer( 2, 2 ) ), snake.getBody( ) );
+    }
+
+    /**
+     * Leaving the grid kills the snake and removes it from the game.
+     */
+    @Test
+    void wallKills( ) {
+        GameState gameState = room( new Pointer( 9, 9 ) );
+        Snake snake = snake( Direction.LEFT, new Pointer( 0, 4 ) );
+        gameState.addSnake( "a", snake );
+
+        assertEquals( CollisionType.WALL, GameRules.move( gameState, "a", snake, random ).getCollision( ) );
+        assertFalse( snake.isAlive( ) );
+        assertTrue( gameState.getSnakes( ).isEmpty( ) );
+    }
+
+    /**
+     * Running into the own body kills the snake, but the cell its tail leaves is free.
+     */
+    @Test
+    void ownBodyKillsButTailCellIsFree( ) {
+        GameState gameState = room( new Pointer( 9, 9 ) );
+        // A 2x2 loop: moving up enters the tail's cell, which the tail leaves in the same move
+        Snake circling = snake( Direction.UP, new Pointer( 1, 2 ), new Pointer( 2, 2 ), new Pointer( 2, 1 ), new Pointer( 1, 1 ) );
+        gameState.addSnake( "a", circling );
+        assertNull( GameRules.move( gameState, "a", circling, random ).getCollision( ) );
+
+        Snake biting = snake( Direction.UP, new Pointer( 5, 6 ), new Pointer( 6, 6 ), new Pointer( 6, 5 ), new Pointer( 5, 5 ), new Pointer( 4, 5 ) );
+        gameState.addSnake( "b", biting );
+        assertEquals( CollisionType.SELF, GameRules.move( gameState, "b", biting, random ).getCollision( ) );
+        assertFalse( gameState.getSnakes( ).containsKey( "b" ) );
+    }
+
+    /**
+     * Running into another snake kills only the moving snake.
+     */
+    @Test
+    void otherSnakeKills( ) {
+        GameState gameState = room( new Pointer( 9, 9 ) );
+        Snake moving = snake( Direction.RIGHT, new Pointer( 3, 3 ) );
+        Snake other = snake( Direction.UP, new Pointer( 4, 2 ), new Pointer( 4, 3 ), new Pointer( 4, 4 ) );
+        gameState.addSnake( "a", moving );
+        gameState.addSnake( "b", other );
+
+        assertEquals( CollisionType.OTHER_SNAKE, GameRules.move( gameState, "a", moving, random ).getCollision( ) );
+        assertFalse( gameState.getSnakes( ).containsKey( "a" ) );
+        assertTrue( other.isAlive( ) );
+    }
+
+    /**
+     * Eating grows the snake by doubling its tail and moves the food; a doubled tail does not leave its cell.
+     */
+    @Test
+    void foodGrowsSnake( ) {
+        GameState gameState = room( new Pointer( 3, 2 ) );
+        Snake snake = snake( Direction.RIGHT, new Pointer( 2, 2 ), new Pointer( 1, 2 ) );
+        gameState.addSnake( "a", snake );
+
+        assertTrue( GameRules.move( gameState, "a", snake, random ).isAteFood( ) );
+        assertIterableEquals( List.of( new Pointer( 3, 2 ), new Pointer( 2, 2 ), new Pointer( 2, 2 ) ), snake.getBody( ) );
+        assertNotEquals( new Pointer( 3, 2 ), gameState.getFood( ).getPosition( ) );
+
+        snake.setDirection( Direction.DOWN );
+        GameRules.move( gameState, "a", snake, random );
+        assertIterableEquals( List.of( new Pointer( 3, 3 ), new Pointer( 3, 2 ), new Pointer( 2, 2 ) ), snake.getBody( ) );
+    }
+
+    /**
+     * As in the live game, food under a fatal collision is still eaten.
+     */
+    @Test
+    void foodIsEatenOnFatalMove( ) {
+        GameState gameState = room( new Pointer( 4, 3 ) );
+        Snake moving = snake( Direction.RIGHT, new Pointer( 3, 3 ) );
+        gameState.addSnake( "a", moving );
+        gameState.addSnake( "b", snake( Direction.UP, new Pointer( 4, 3 ), new Pointer( 4, 4 ) ) );
+
+        MoveOutcome outcome = GameRules.move( gameState, "a", moving, random );
+        assertEquals( CollisionType.OTHER_SNAKE, outcome.getCollision( ) );
+        assertTrue( outcome.isAteFood( ) );
+    }
+
+    /**
+     * Builds a 10x10 room with food at the given cell.
+     */
+    private static GameState room( Pointer food ) {
+        GameState gameState = new GameState( 10, 10 );
+        gameState.getFood( ).setPosition( food );
+        return gameState;
+    }
+
+    /**
+     * Builds a snake with the given body, head first.
+     */
+    private static Snake snake( Direction direction, Pointer... body ) {
+        Snake snake = new Snake( body[0] );
+        snake.setBody( new LinkedList<>( List.of( body ) ) );
+        snake.setDirection( direction );
+        return snake;
+    }
+}
@@ -0,0 +1,147 @@
+package overload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the degradation steps and the broadcast throttle of {@link OverloadController}.
+ */
+class OverloadControllerTest {
+
+    private OverloadController controller;
+
+    /**
+     * Creates a started controller with a 5 ms budget whose timer never evaluates on its own.
+     */
+    @BeforeEach
+    void setUp( ) {
+        controller = new OverloadController( );
+        controller.tickBudgetMillis = 5;
+        controller.recoveryRatio = 0.6;
+        controller.windowMillis = TimeUnit.HOURS.toMillis( 1 );
+        controller.reducedBroadcastIntervalMillis = 100;
+        controller.interestRadius = 10;
+        controller.meterRegistry = new SimpleMeterRegistry( );
+        controller.onStart( null );
+    }
+
+    /**
+     * Stops the controller, which also lifts any logging measure.
+     */
+    @AfterEach
+    void tearDown( ) {
+        controller.setSyntheticTickMillis( 0 );
+        while ( controller.getLevel( ) != DegradationLevel.NORMAL ) {
+            controller.evaluate( );
+        }
+        controller.onStop( null );
+    }
+
+    /**
+     * Slow ticks raise the level one step per window up to the last one, fast ticks lower it back to normal.
+     */
+    @Test
+    void stepsThroughAllLevelsAndRecovers( ) {
+        DegradationLevel[] levels = DegradationLevel.values( );
+        for ( int i = 1; i < levels.length; i++ ) {
+            tick( 20 );
+            controller.evaluate( );
+            assertEquals( levels[i], controller.getLevel( ) );
+        }
+        tick( 20 );
+        controller.evaluate( );
+        assertEquals( DegradationLevel.REFUSE_JOINS, controller.getLevel( ) );
+        assertTrue( controller.isRefusingJoins( ) );
+        assertTrue( controller.isInterestNarrowed( ) );
+
+        for ( int i = levels.length - 2; i >= 0; i-- ) {
+            tick( 1 );
+            controller.evaluate( );
+            assertEquals( levels[i], controller.getLevel( ) );
+        }
+        assertFalse( controller.isInterestNarrowed( ) );
+        assertFalse( controller.isRefusingJoins( ) );
+    }
+
+    /**
+     * Tick times between the recovery threshold and the budget keep the current level.
+     */
+    @Test
+    void holdsLevelBetweenRecoveryThresholdAndBudget( ) {
+        tick( 20 );
+        controller.evaluate( );
+        assertEquals( DegradationLevel.QUIET_LOGGING, controller.getLevel( ) );
+
+        tick( 4 );
+        controller.evaluate( );
+        assertEquals( DegradationLevel.QUIET_LOGGING, controller.getLevel( ) );
+    }
+
+    /**
+     * Windows without ticks follow the synthetic tick time, so a synthetic overload holds on an idle server.
+     */
+    @Test
+    void idleWindowsFollowSyntheticTickTime( ) {
+        controller.setSyntheticTickMillis( 20 );
+        controller.evaluate( );
+        controller.evaluate( );
+        assertEquals( DegradationLevel.REDUCED_BROADCAST, controller.getLevel( ) );
+
+        controller.setSyntheticTickMillis( 0 );
+        controller.evaluate( );
+        assertEquals( DegradationLevel.QUIET_LOGGING, controller.getLevel( ) );
+    }
+
+    /**
+     * Under reduced broadcasts, the last skipped broadcast of an interval is flushed once when the interval expires.
+     *
+     * @throws InterruptedException if interrupted while waiting for the flush
+     */
+    @Test
+    void flushesLastSkippedBroadcast( ) throws InterruptedException {
+        assertTrue( controller.allowBroadcast( "room", ( ) -> {
+        } ) );
+
+        controller.setSyntheticTickMillis( 20 );
+        controller.evaluate( );
+        controller.evaluate( );
+        assertEquals( DegradationLevel.REDUCED_BROADCAST, controller.getLevel( ) );
+
+        assertTrue( controller.allowBroadcast( "room", ( ) -> {
+        } ) );
+        AtomicInteger superseded = new AtomicInteger( );
+        AtomicInteger flushed = new AtomicInteger( );
+        CountDownLatch latch = new CountDownLatch( 1 );
+        assertFalse( controller.allowBroadcast( "room", superseded::incrementAndGet ) );
+        assertFalse( controller.allowBroadcast( "room", ( ) -> {
+            flushed.incrementAndGet( );
+            latch.countDown( );
+        } ) );
+
+        assertTrue( latch.await( 2, TimeUnit.SECONDS ) );
+        Thread.sleep( 50 );
+        assertEquals( 0, superseded.get( ) );
+        assertEquals( 1, flushed.get( ) );
+    }
+
+    /**
+     * Records ten ticks of the given duration.
+     *
+     * @param millis the tick duration in milliseconds
+     */
+    private void tick( long millis ) {
+        for ( int i = 0; i < 10; i++ ) {
+            controller.recordTick( TimeUnit.MILLISECONDS.toNanos( millis ) );
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package services;
+
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests tier selection, frame sharing and frame skipping of {@link SpectatorService}.
+ */
+class SpectatorServiceTest {
+
+    /**
+     * A requested rate is served by the fastest tier not faster than it, or by the slowest tier.
+     */
+    @Test
+    void choosesFastestTierNotFasterThanRequested( ) {
+        SpectatorService service = new SpectatorService( );
+        service.tierRates = List.of( 10, 5, 2, 1 );
+        assertEquals( 10, service.tierFor( 60 ) );
+        assertEquals( 10, service.tierFor( 10 ) );
+        assertEquals( 5, service.tierFor( 7 ) );
+        assertEquals( 2, service.tierFor( 2 ) );
+        assertEquals( 1, service.tierFor( 1 ) );
+        assertEquals( 1, service.tierFor( 0 ) );
+    }
+
+    /**
+     * A room state is encoded once and the same frame is shared until the next state is published.
+     */
+    @Test
+    void encodesEachStateOnce( ) {
+        SpectatorService.RoomFeed feed = new SpectatorService.RoomFeed( );
+        assertNull( feed.latestFrame( ) );
+
+        AtomicInteger encodings = new AtomicInteger( );
+        feed.publish( ( ) -> {
+            encodings.incrementAndGet( );
+            return "{\"state\":1}";
+        } );
+        SpectatorService.Frame frame = feed.latestFrame( );
+        assertSame( frame, feed.latestFrame( ) );
+        assertEquals( 1, encodings.get( ) );
+        assertEquals( "{\"state\":1}", text( frame.buffer.duplicate( ) ) );
+
+        feed.publish( ( ) -> "{\"state\":2}" );
+        SpectatorService.Frame next = feed.latestFrame( );
+        assertNotSame( frame, next );
+        assertTrue( next.version > frame.version );
+        assertEquals( "{\"state\":2}", text( next.buffer.duplicate( ) ) );
+    }
+
+    /**
+     * Spectators share one frame, never get the same version twice, and catch up after skipping a frame while a
+     * send was in flight.
+     */
+    @Test
+    void skippedFrameIsOfferedAgain( ) {
+        SpectatorService.RoomFeed feed = new SpectatorService.RoomFeed( );
+        FakeSession first = new FakeSession( );
+        FakeSession second = new FakeSession( );
+        SpectatorService.Spectator a = new SpectatorService.Spectator( first.proxy( ) );
+        SpectatorService.Spectator b = new SpectatorService.Spectator( second.proxy( ) );
+
+        feed.publish( ( ) -> "one" );
+        SpectatorService.Frame one = feed.latestFrame( );
+        a.offer( one );
+        b.offer( one );
+        b.offer( one );
+        assertEquals( List.of( "one" ), first.sent );
+        assertEquals( List.of( "one" ), second.sent );
+        second.complete( );
+
+        feed.publish( ( ) -> "two" );
+        SpectatorService.Frame two = feed.latestFrame( );
+        a.offer( two );
+        b.offer( two );
+        assertEquals( List.of( "one" ), first.sent );
+        assertEquals( List.of( "one", "two" ), second.sent );
+
+        first.complete( );
+        a.offer( feed.latestFrame( ) );
+        assertEquals( List.of( "one", "two" ), first.sent );
+    }
+
+    /**
+     * Decodes a frame.
+     */
+    private static String text( ByteBuffer buffer ) {
+        byte[] bytes = new byte[buffer.remaining( )];
+        buffer.get( bytes );
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    /**
+     * A session that records the frames sent to it and completes sends only when told to.
+     */
+    private static final class FakeSession {
+        private final List< String > sent = new ArrayList<>( );
+        private final List< SendHandler > pending = new ArrayList<>( );
+
+        /**
+         * Completes all pending sends successfully.
+         */
+        void complete( ) {
+            List< SendHandler > handlers = new ArrayList<>( pending );
+            pending.clear( );
+            handlers.forEach( handler -> handler.onResult( new SendResult( ) ) );
+        }
+
+        /**
+         * Returns a session backed by this fake.
+         */
+        Session proxy( ) {
+            RemoteEndpoint.Async remote = ( RemoteEndpoint.Async ) Proxy.newProxyInstance( getClass( ).getClassLoader( ),
+                    new Class< ? >[]{ RemoteEndpoint.Async.class }, ( proxy, method, args ) -> {
+                        if ( method.getName( ).equals( "sendBinary" ) && args.length == 2 ) {
+                            sent.add( text( ( ByteBuffer ) args[0] ) );
+                            pending.add( ( SendHandler ) args[1] );
+                        }
+                        return null;
+                    } );
+            return ( Session ) Proxy.newProxyInstance( getClass( ).getClassLoader( ), new Class< ? >[]{ Session.class },
+                    ( proxy, method, args ) -> switch ( method.getName( ) ) {
+                        case "getAsyncRemote" -> remote;
+                        case "getId" -> "spectator";
+                        case "hashCode" -> System.identityHashCode( proxy );
+                        case "equals" -> proxy == args[0];
+                        default -> null;
+                    } );
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package simulation;
+
+import models.CollisionType;
+import models.Direction;
+import models.GameState;
+import models.MoveOutcome;
+import models.Pointer;
+import models.Snake;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests scripted moves and recorded outcomes of {@link SimulatedGame}.
+ */
+class SimulatedGameTest {
+
+    /**
+     * Leaving the grid is a wall death.
+     */
+    @Test
+    void wallDeath( ) {
+        GameState gameState = room( new Pointer( 9, 9 ) );
+        gameState.addSnake( "a", snake( new Pointer( 0, 5 ) ) );
+        SimulatedGame game = game( gameState );
+
+        assertEquals( CollisionType.WALL, game.move( 0, Direction.LEFT ).getCollision( ) );
+        assertTrue( gameState.getSnakes( ).isEmpty( ) );
+    }
+
+    /**
+     * Turning into the own body is a self death.
+     */
+    @Test
+    void selfDeath( ) {
+        GameState gameState = room( new Pointer( 9, 9 ) );
+        gameState.addSnake( "a", snake( new Pointer( 5, 6 ), new Pointer( 6, 6 ), new Pointer( 6, 5 ), new Pointer( 5, 5 ), new Pointer( 4, 5 ) ) );
+        SimulatedGame game = game( gameState );
+
+        assertEquals( CollisionType.SELF, game.move( 0, Direction.UP ).getCollision( ) );
+    }
+
+    /**
+     * Running into another snake kills the moving snake only.
+     */
+    @Test
+    void otherSnakeDeath( ) {
+        GameState gameState = room( new Pointer( 9, 9 ) );
+        gameState.addSnake( "a", snake( new Pointer( 3, 3 ) ) );
+        gameState.addSnake( "b", snake( new Pointer( 4, 2 ), new Pointer( 4, 3 ), new Pointer( 4, 4 ) ) );
+        SimulatedGame game = game( gameState );
+
+        assertEquals( CollisionType.OTHER_SNAKE, game.move( 0, Direction.RIGHT ).getCollision( ) );
+        assertEquals( List.of( "b" ), List.copyOf( gameState.getSnakes( ).keySet( ) ) );
+        assertNull( game.move( 1, Direction.UP ).getCollision( ) );
+    }
+
+    /**
+     * Reaching the food grows the snake by one segment and places new food.
+     */
+    @Test
+    void growsOnFood( ) {
+        GameState gameState = room( new Pointer( 3, 2 ) );
+        Snake snake = snake( new Pointer( 2, 2 ), new Pointer( 1, 2 ) );
+        gameState.addSnake( "a", snake );
+        SimulatedGame game = game( gameState );
+
+        MoveOutcome outcome = game.move( 0, Direction.RIGHT );
+        assertTrue( outcome.isAteFood( ) );
+        assertNull( outcome.getCollision( ) );
+        game.move( 0, Direction.DOWN );
+        assertEquals( 3, snake.getBody( ).size( ) );
+        assertFalse( gameState.getFood( ).getPosition( ).equals( new Pointer( 3, 2 ) ) );
+    }
+
+    /**
+     * A played tick lets a trapped bot keep its direction into the wall, steers the other bot to the food, and
+     * records both outcomes.
+     */
+    @Test
+    void playRecordsOutcomes( ) {
+        GameState gameState = new GameState( 2, 2 );
+        gameState.setSnakes( new LinkedHashMap<>( ) );
+        gameState.getFood( ).setPosition( new Pointer( 1, 1 ) );
+        Snake trapped = snake( new Pointer( 0, 0 ), new Pointer( 0, 1 ) );
+        trapped.setDirection( Direction.UP );
+        gameState.addSnake( "a", trapped );
+        gameState.addSnake( "b", snake( new Pointer( 1, 0 ) ) );
+        SimulationStats stats = new SimulationStats( );
+        new SimulatedGame( gameState, 1, 0, new SplittableRandom( 3 ) ).play( stats );
+
+        SimulationResult result = stats.toResult( new SimulationConfig( 1, 1, 2, 2, 2, 3, 1, 0 ), 1 );
+        assertEquals( 1, result.getTicks( ) );
+        assertEquals( Map.of( CollisionType.WALL, 1L, CollisionType.SELF, 0L, CollisionType.OTHER_SNAKE, 0L ), result.getCollisions( ) );
+        assertEquals( 1, result.getFoodEaten( ) );
+        assertEquals( 1, result.getSurvivors( ) );
+        assertEquals( new Pointer( 1, 1 ), gameState.getSnakes( ).get( "b" ).getHead( ) );
+    }
+
+    /**
+     * Builds a 10x10 room with food at the given cell, whose snakes move in insertion order.
+     */
+    private static GameState room( Pointer food ) {
+        GameState gameState = new GameState( 10, 10 );
+        gameState.setSnakes( new LinkedHashMap<>( ) );
+        gameState.getFood( ).setPosition( food );
+        return gameState;
+    }
+
+    /**
+     * Builds a game of the given state without bot randomness.
+     */
+    private static SimulatedGame game( GameState gameState ) {
+        return new SimulatedGame( gameState, 100, 0, new SplittableRandom( 3 ) );
+    }
+
+    /**
+     * Builds a snake with the given body, head first.
+     */
+    private static Snake snake( Pointer... body ) {
+        Snake snake = new Snake( body[0] );
+        snake.setBody( new LinkedList<>( List.of( body ) ) );
+        return snake;
+    }
+}
@@ -0,0 +1,78 @@
+package simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the bounds enforced by {@link SimulationConfig}.
+ */
+class SimulationConfigTest {
+
+    /**
+     * A configuration within all bounds is accepted as given.
+     */
+    @Test
+    void acceptsConfigurationWithinBounds( ) {
+        SimulationConfig config = new SimulationConfig( 10_000, 5000, 4, 40, 30, 42, 2, 0.1 );
+        assertEquals( 10_000, config.getGames( ) );
+        assertEquals( 5000, config.getMaxTicks( ) );
+        assertEquals( 4, config.getSnakesPerGame( ) );
+        assertEquals( 40, config.getGridWidth( ) );
+        assertEquals( 30, config.getGridHeight( ) );
+        assertEquals( 42, config.getSeed( ) );
+        assertEquals( 2, config.getThreads( ) );
+        assertEquals( 0.1, config.getBotRandomness( ), 0 );
+    }
+
+    /**
+     * Games and ticks must be positive and at most their limits.
+     */
+    @Test
+    void rejectsGamesAndTicksOutOfRange( ) {
+        assertRejected( 0, 100, 4, 40, 40, 1, 0 );
+        assertRejected( SimulationConfig.MAX_GAMES + 1, 1, 1, 40, 40, 1, 0 );
+        assertRejected( 10, 0, 4, 40, 40, 1, 0 );
+        assertRejected( 1, SimulationConfig.MAX_TICKS + 1, 1, 40, 40, 1, 0 );
+    }
+
+    /**
+     * The grid must hold at least 2x2 and at most a million cells, and the snakes must fit in it.
+     */
+    @Test
+    void rejectsGridsAndSnakesOutOfRange( ) {
+        assertRejected( 10, 100, 1, 1, 40, 1, 0 );
+        assertRejected( 10, 100, 1, 1001, 1000, 1, 0 );
+        assertRejected( 10, 100, 0, 40, 40, 1, 0 );
+        assertRejected( 10, 100, 9, 4, 4, 1, 0 );
+        assertRejected( 10, 100, SimulationConfig.MAX_SNAKES + 1, 100, 100, 1, 0 );
+        assertRejected( 1, 1, 100, 1000, 1000, 1, 0 );
+    }
+
+    /**
+     * A batch may not exceed the total number of snake moves.
+     */
+    @Test
+    void rejectsTooManySnakeMoves( ) {
+        new SimulationConfig( 500_000, 1000, 4, 40, 40, 42, 1, 0 );
+        assertRejected( 500_001, 1000, 4, 40, 40, 1, 0 );
+    }
+
+    /**
+     * Threads must be positive and the bot randomness a probability.
+     */
+    @Test
+    void rejectsThreadsAndRandomnessOutOfRange( ) {
+        assertRejected( 10, 100, 4, 40, 40, 0, 0 );
+        assertRejected( 10, 100, 4, 40, 40, 1, -0.1 );
+        assertRejected( 10, 100, 4, 40, 40, 1, 1.1 );
+    }
+
+    /**
+     * Asserts that the configuration is rejected with an {@link IllegalArgumentException}.
+     */
+    private static void assertRejected( int games, int ticks, int snakes, int width, int height, int threads, double randomness ) {
+        assertThrows( IllegalArgumentException.class, ( ) -> new SimulationConfig( games, ticks, snakes, width, height, 42, threads, randomness ) );
+    }
+}
@@ -0,0 +1,48 @@
+package simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Tests that {@link SimulationEngine} batches are reproducible.
+ */
+class SimulationEngineTest {
+    private final SimulationEngine engine = new SimulationEngine( );
+
+    /**
+     * The same configuration gives the same statistics whatever the number of threads.
+     */
+    @Test
+    void resultsDoNotDependOnThreadCount( ) {
+        SimulationResult single = engine.run( config( 42, 1 ) );
+        SimulationResult parallel = engine.run( config( 42, 3 ) );
+        assertEquals( single.getGames( ), parallel.getGames( ) );
+        assertEquals( single.getTicks( ), parallel.getTicks( ) );
+        assertEquals( single.getSnakeMoves( ), parallel.getSnakeMoves( ) );
+        assertEquals( single.getMinSurvivalTicks( ), parallel.getMinSurvivalTicks( ) );
+        assertEquals( single.getMeanSurvivalTicks( ), parallel.getMeanSurvivalTicks( ), 0 );
+        assertEquals( single.getMedianSurvivalTicks( ), parallel.getMedianSurvivalTicks( ) );
+        assertEquals( single.getP90SurvivalTicks( ), parallel.getP90SurvivalTicks( ) );
+        assertEquals( single.getMaxSurvivalTicks( ), parallel.getMaxSurvivalTicks( ) );
+        assertEquals( single.getFoodEaten( ), parallel.getFoodEaten( ) );
+        assertEquals( single.getSurvivors( ), parallel.getSurvivors( ) );
+        assertEquals( single.getCollisions( ), parallel.getCollisions( ) );
+    }
+
+    /**
+     * A different seed plays different games.
+     */
+    @Test
+    void seedChangesResults( ) {
+        assertNotEquals( engine.run( config( 42, 1 ) ).getSnakeMoves( ), engine.run( config( 43, 1 ) ).getSnakeMoves( ) );
+    }
+
+    /**
+     * Returns a small batch configuration.
+     */
+    private static SimulationConfig config( long seed, int threads ) {
+        return new SimulationConfig( 200, 2000, 4, 20, 20, seed, threads, 0.1 );
+    }
+}
@@ -0,0 +1,135 @@
+package websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dtos.GameStateDTO;
+import dtos.PointerDTO;
+import dtos.SnakeDTO;
+import models.Direction;
+import models.GameState;
+import models.Pointer;
+import models.Snake;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the encodings and regional views of {@link RoomSnapshot}.
+ */
+class RoomSnapshotTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper( );
+    private static final int RADIUS = 10;
+
+    /**
+     * The full state is the same JSON as serializing a {@link GameStateDTO}.
+     *
+     * @throws IOException if the state cannot be serialized
+     */
+    @Test
+    void fullStateMatchesGameStateDTO( ) throws IOException {
+        GameState gameState = room( );
+        Map< String, SnakeDTO > snakes = new LinkedHashMap<>( );
+        gameState.getSnakes( ).forEach( ( playerId, snake ) -> {
+            LinkedList< PointerDTO > body = new LinkedList<>( );
+            snake.getBody( ).forEach( p -> body.add( new PointerDTO( p.getX( ), p.getY( ) ) ) );
+            snakes.put( playerId, new SnakeDTO( body, snake.getDirection( ).toString( ), snake.isAlive( ) ) );
+        } );
+        Pointer food = gameState.getFood( ).getPosition( );
+        String expected = OBJECT_MAPPER.writeValueAsString( new GameStateDTO( snakes, new PointerDTO( food.getX( ), food.getY( ) ) ) );
+
+        assertEquals( OBJECT_MAPPER.readTree( expected ), OBJECT_MAPPER.readTree( RoomSnapshot.of( gameState ).toJson( ) ) );
+    }
+
+    /**
+     * A decoded snapshot, also at an offset, produces the same full state, views and heads as the original.
+     *
+     * @throws IOException if the snapshot cannot be encoded or decoded
+     */
+    @Test
+    void roundTrips( ) throws IOException {
+        RoomSnapshot snapshot = RoomSnapshot.of( room( ) );
+        byte[] encoded = snapshot.encode( );
+        byte[] prefixed = new byte[encoded.length + 1];
+        System.arraycopy( encoded, 0, prefixed, 1, encoded.length );
+        RoomSnapshot decoded = RoomSnapshot.decode( prefixed, 1 );
+
+        assertEquals( snapshot.toJson( ), decoded.toJson( ) );
+        assertEquals( snapshot.toJson( 1, 0, RADIUS ), decoded.toJson( 1, 0, RADIUS ) );
+        assertArrayEquals( snapshot.headOf( "b" ), decoded.headOf( "b" ) );
+        assertNull( decoded.headOf( "empty" ) );
+    }
+
+    /**
+     * Truncated bytes are rejected.
+     *
+     * @throws IOException if the snapshot cannot be encoded
+     */
+    @Test
+    void rejectsTruncatedBytes( ) throws IOException {
+        byte[] encoded = RoomSnapshot.of( room( ) ).encode( );
+        assertThrows( IOException.class, ( ) -> RoomSnapshot.decode( Arrays.copyOf( encoded, encoded.length - 3 ), 0 ) );
+    }
+
+    /**
+     * A regional view holds the snakes whose head is in the region or a neighbouring one, never snakes without a
+     * body, and always the food.
+     *
+     * @throws IOException if the state cannot be serialized or parsed
+     */
+    @Test
+    void regionalViewsHoldNearbySnakes( ) throws IOException {
+        RoomSnapshot snapshot = RoomSnapshot.of( room( ) );
+        assertEquals( Set.of( "a", "b", "c", "empty" ), playersIn( snapshot.toJson( ) ) );
+        assertEquals( Set.of( "a", "b" ), playersIn( snapshot.toJson( 0, 0, RADIUS ) ) );
+        assertEquals( Set.of( "b", "c" ), playersIn( snapshot.toJson( 2, 0, RADIUS ) ) );
+        assertEquals( Set.of( ), playersIn( snapshot.toJson( 0, 3, RADIUS ) ) );
+        assertEquals( 44, OBJECT_MAPPER.readTree( snapshot.toJson( 0, 3, RADIUS ) ).get( "foodPosition" ).get( "x" ).asInt( ) );
+        assertArrayEquals( new int[]{ 15, 5 }, snapshot.headOf( "b" ) );
+        assertEquals( -1, RoomSnapshot.regionOf( -1, RADIUS ) );
+    }
+
+    /**
+     * Builds a room with snakes headed in regions 0, 1 and 3 of the first row, and one snake without a body.
+     */
+    private static GameState room( ) {
+        GameState gameState = new GameState( 50, 50 );
+        gameState.getFood( ).setPosition( new Pointer( 44, 44 ) );
+        gameState.addSnake( "a", snake( new Pointer( 5, 5 ), new Pointer( 4, 5 ) ) );
+        gameState.addSnake( "b", snake( new Pointer( 15, 5 ), new Pointer( 15, 6 ), new Pointer( 15, 7 ) ) );
+        gameState.addSnake( "c", snake( new Pointer( 35, 5 ) ) );
+        gameState.addSnake( "empty", snake( ) );
+        return gameState;
+    }
+
+    /**
+     * Builds a snake with the given body, head first.
+     */
+    private static Snake snake( Pointer... body ) {
+        Snake snake = new Snake( new Pointer( 0, 0 ) );
+        snake.setBody( new LinkedList<>( List.of( body ) ) );
+        snake.setDirection( Direction.UP );
+        return snake;
+    }
+
+    /**
+     * Returns the IDs of the players in an encoded state.
+     */
+    private static Set< String > playersIn( String json ) throws IOException {
+        JsonNode snakes = OBJECT_MAPPER.readTree( json ).get( "snakes" );
+        Set< String > players = new TreeSet<>( );
+        snakes.fieldNames( ).forEachRemaining( players::add );
+        return players;
+    }
+}